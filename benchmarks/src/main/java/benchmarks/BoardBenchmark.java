@@ -0,0 +1,39 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    private ChessBoard board;
+    private ChessBoard copy;
+
+    @Setup
+    public void setup() {
+        board = Positions.middlegame().getBoard();
+        copy = board.calcBoard();
+    }
+
+    @Benchmark
+    public ChessBoard calcBoard() {
+        return board.calcBoard();
+    }
+
+    @Benchmark
+    public boolean boardEquals() {
+        return board.equals(copy);
+    }
+
+    @Benchmark
+    public int boardHashCode() {
+        return board.hashCode();
+    }
+}
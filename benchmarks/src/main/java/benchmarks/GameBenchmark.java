@@ -0,0 +1,82 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChessGame rule queries. The "Uncached" variants call setTeamTurn first so the game
+ * has to regenerate its legal moves instead of answering from its per-position cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+
+    private static final ChessMove[] KNIGHT_SHUFFLE = {
+            Positions.move("g1f3"), Positions.move("g8f6"), Positions.move("f3g1"), Positions.move("f6g8")
+    };
+
+    private ChessGame middlegame;
+    private ChessGame checkmate;
+    private ChessGame shuffle;
+    private ChessBoard shuffleBoard;
+    private final ChessPosition knight = new ChessPosition(3, 6);
+
+    @Setup
+    public void setup() {
+        middlegame = Positions.middlegame();
+        checkmate = Positions.checkmate();
+        shuffle = new ChessGame();
+        shuffleBoard = shuffle.getBoard();
+    }
+
+    @Benchmark
+    public Collection<ChessMove> validMoves() {
+        return middlegame.validMoves(knight);
+    }
+
+    @Benchmark
+    public Collection<ChessMove> validMovesUncached() {
+        middlegame.setTeamTurn(ChessGame.TeamColor.BLACK);
+        return middlegame.validMoves(knight);
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return middlegame.isInCheck(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return checkmate.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInCheckmateUncached() {
+        checkmate.setTeamTurn(ChessGame.TeamColor.WHITE);
+        return checkmate.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    /**
+     * Four makeMove calls that return to the start position, then setBoard so the game's
+     * move records don't grow across invocations
+     */
+    @Benchmark
+    public ChessGame makeMove() throws InvalidMoveException {
+        for (ChessMove move : KNIGHT_SHUFFLE) {
+            shuffle.makeMove(move);
+        }
+        shuffle.setBoard(shuffleBoard);
+        return shuffle;
+    }
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation for one piece of each type in a middlegame position, through both the
+ * Collection API and the reusable buffer
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceMovesBenchmark {
+
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType type;
+
+    private ChessBoard board;
+    private ChessPiece piece;
+    private ChessPosition position;
+    private int square;
+    private final MoveList buffer = new MoveList();
+
+    @Setup
+    public void setup() {
+        board = Positions.middlegame().getBoard();
+        for (int row = 1; row <= 8 && piece == null; row++) {
+            for (int col = 1; col <= 8 && piece == null; col++) {
+                ChessPiece candidate = board.getPiece(new ChessPosition(row, col));
+                if (candidate != null && candidate.getPieceType() == type) {
+                    piece = candidate;
+                    position = new ChessPosition(row, col);
+                    square = (row - 1) * 8 + (col - 1);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Collection<ChessMove> pieceMoves() {
+        return piece.pieceMoves(board, position);
+    }
+
+    @Benchmark
+    public MoveList pieceMovesBuffer() {
+        buffer.clear();
+        piece.pieceMoves(board, square, buffer);
+        return buffer;
+    }
+}
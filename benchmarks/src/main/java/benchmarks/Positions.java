@@ -0,0 +1,53 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+
+/**
+ * Positions shared by the benchmarks, reached by playing moves through the public API
+ */
+final class Positions {
+
+    private Positions() {
+    }
+
+    /**
+     * @return a game after 1.e4 e5 2.Nf3 Nc6 3.Bc4 Bc5 4.c3 Nf6 5.d4 exd4 6.cxd4 Bb4+ 7.Nc3
+     */
+    static ChessGame middlegame() {
+        return play("e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5", "c2c3", "g8f6",
+                "d2d4", "e5d4", "c3d4", "c5b4", "b1c3");
+    }
+
+    /**
+     * @return a game after 1.f3 e5 2.g4 Qh4#, white to move and checkmated
+     */
+    static ChessGame checkmate() {
+        return play("f2f3", "e7e5", "g2g4", "d8h4");
+    }
+
+    static ChessGame play(String... moves) {
+        ChessGame game = new ChessGame();
+        try {
+            for (String move : moves) {
+                game.makeMove(move(move));
+            }
+        } catch (InvalidMoveException e) {
+            throw new IllegalStateException(e);
+        }
+        return game;
+    }
+
+    /**
+     * @param move a move in coordinate notation, like "e2e4"
+     */
+    static ChessMove move(String move) {
+        return new ChessMove(position(move, 0), position(move, 2), null);
+    }
+
+    private static ChessPosition position(String move, int offset) {
+        return new ChessPosition(move.charAt(offset + 1) - '0', move.charAt(offset) - 'a' + 1);
+    }
+}
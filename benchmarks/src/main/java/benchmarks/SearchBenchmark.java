@@ -0,0 +1,58 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ParallelSearch;
+import chess.Search;
+import chess.SearchLimits;
+import chess.SearchResult;
+import chess.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    @Param({"4", "5"})
+    public int depth;
+
+    private ChessGame game;
+    private TranspositionTable table;
+    private Search search;
+    private ParallelSearch parallelSearch;
+    private SearchLimits limits;
+
+    @Setup
+    public void setup() {
+        game = Positions.middlegame();
+        table = new TranspositionTable(4);
+        search = new Search(table);
+        parallelSearch = new ParallelSearch(Runtime.getRuntime().availableProcessors(), table);
+        limits = SearchLimits.ofDepth(depth);
+    }
+
+    /**
+     * Every search starts from an empty table, so later invocations don't just replay
+     * the first one's results. The table is kept small so clearing it costs well under a
+     * millisecond against searches that take tens of milliseconds.
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    public SearchResult searchToDepth() {
+        return search.search(game, limits);
+    }
+
+    @Benchmark
+    public SearchResult parallelSearchToDepth() {
+        return parallelSearch.search(game, limits);
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson round trip of a ChessGame, the way the server stores games
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    private final Gson gson = new Gson();
+    private ChessGame game;
+    private String json;
+
+    @Setup
+    public void setup() {
+        game = Positions.middlegame();
+        json = gson.toJson(game);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame fromJson() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame roundTrip() {
+        return gson.fromJson(gson.toJson(game), ChessGame.class);
+    }
+}
@@ -0,0 +1,178 @@
+package chess;
+
+/**
+ * Attack sets indexed by square (0-63), built once when the class is initialized.
+ * Each entry is a bitboard of the squares a piece on that square attacks, so move
+ * generation and attack detection are a lookup and a mask instead of offset
+ * arithmetic and bounds checks.
+ * <p>
+ * Sliding pieces also depend on what blocks them. For every square there is a mask of
+ * the squares whose occupancy matters (the rays minus the board edge), and a table
+ * holding the attack set for every subset of that mask. Long.compress gathers the
+ * masked occupancy bits into a dense table index (PEXT on hardware that has it), so a
+ * rook or bishop's attacks come from one mask, one compress and one array read.
+ */
+final class Attacks {
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final long[] ROOK_MASK = new long[64];
+    private static final long[] BISHOP_MASK = new long[64];
+    private static final int[] ROOK_OFFSET = new int[64];
+    private static final int[] BISHOP_OFFSET = new int[64];
+    private static final long[] ROOK_TABLE;
+    private static final long[] BISHOP_TABLE;
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightSteps = {
+                {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}
+        };
+        int[][] kingSteps = {
+                {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+        };
+        int[][] whitePawnSteps = {{1, -1}, {1, 1}};
+        int[][] blackPawnSteps = {{-1, -1}, {-1, 1}};
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = steps(square, knightSteps);
+            KING[square] = steps(square, kingSteps);
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = steps(square, whitePawnSteps);
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = steps(square, blackPawnSteps);
+        }
+        ROOK_TABLE = slidingTable(ROOK_DIRECTIONS, ROOK_MASK, ROOK_OFFSET);
+        BISHOP_TABLE = slidingTable(BISHOP_DIRECTIONS, BISHOP_MASK, BISHOP_OFFSET);
+        lines(ROOK_DIRECTIONS);
+        lines(BISHOP_DIRECTIONS);
+    }
+
+    private Attacks() {
+    }
+
+    private static long steps(int square, int[][] offsets) {
+        long attacks = 0L;
+        for (int[] offset : offsets) {
+            int row = (square >>> 3) + offset[0];
+            int col = (square & 7) + offset[1];
+            if (row >= 0 && row <= 7 && col >= 0 && col <= 7) {
+                attacks |= 1L << (row * 8 + col);
+            }
+        }
+        return attacks;
+    }
+
+    private static long[] slidingTable(int[][] directions, long[] masks, int[] offsets) {
+        int size = 0;
+        for (int square = 0; square < 64; square++) {
+            masks[square] = relevantMask(square, directions);
+            offsets[square] = size;
+            size += 1 << Long.bitCount(masks[square]);
+        }
+        long[] table = new long[size];
+        for (int square = 0; square < 64; square++) {
+            int subsets = 1 << Long.bitCount(masks[square]);
+            for (int i = 0; i < subsets; i++) {
+                long occupied = Long.expand(i, masks[square]);
+                table[offsets[square] + i] = rays(square, directions, occupied);
+            }
+        }
+        return table;
+    }
+
+    private static void lines(int[][] directions) {
+        for (int from = 0; from < 64; from++) {
+            for (int[] direction : directions) {
+                long line = (1L << from) | ray(from, direction) | ray(from, new int[]{-direction[0], -direction[1]});
+                long between = 0L;
+                int row = (from >>> 3) + direction[0];
+                int col = (from & 7) + direction[1];
+                while (row >= 0 && row <= 7 && col >= 0 && col <= 7) {
+                    int to = row * 8 + col;
+                    BETWEEN[from][to] = between;
+                    LINE[from][to] = line;
+                    between |= 1L << to;
+                    row += direction[0];
+                    col += direction[1];
+                }
+            }
+        }
+    }
+
+    private static long ray(int square, int[] direction) {
+        return rays(square, new int[][]{direction}, 0L);
+    }
+
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] direction : directions) {
+            int row = (square >>> 3) + direction[0];
+            int col = (square & 7) + direction[1];
+            while (row + direction[0] >= 0 && row + direction[0] <= 7
+                    && col + direction[1] >= 0 && col + direction[1] <= 7) {
+                mask |= 1L << (row * 8 + col);
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long rays(int square, int[][] directions, long occupied) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int row = (square >>> 3) + direction[0];
+            int col = (square & 7) + direction[1];
+            while (row >= 0 && row <= 7 && col >= 0 && col <= 7) {
+                long bit = 1L << (row * 8 + col);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    static long knight(int square) {
+        return KNIGHT[square];
+    }
+    static long king(int square) {
+        return KING[square];
+    }
+    /**
+     * @return the squares a pawn of the given color on the square could capture on
+     */
+    static long pawn(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    static long rook(int square, long occupied) {
+        return ROOK_TABLE[ROOK_OFFSET[square] + (int) Long.compress(occupied, ROOK_MASK[square])];
+    }
+    static long bishop(int square, long occupied) {
+        return BISHOP_TABLE[BISHOP_OFFSET[square] + (int) Long.compress(occupied, BISHOP_MASK[square])];
+    }
+    static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between two squares on a shared rank, file or
+     * diagonal, or 0 if they are not aligned
+     */
+    static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+    /**
+     * @return every square on the rank, file or diagonal through both squares, or 0 if
+     * they are not aligned
+     */
+    static long line(int from, int to) {
+        return LINE[from][to];
+    }
+}
@@ -1,77 +1,381 @@
 package chess;
 
-import java.util.Objects;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A chessboard that can hold and rearrange chess pieces.
+ * <p>
+ * Squares are numbered 0-63 from a1 (row 1, column 1) to h8 (row 8, column 8), so
+ * square = (row - 1) * 8 + (column - 1). Alongside a 64-entry mailbox used by getPiece,
+ * the board keeps one bitboard per piece (color and type) and one occupancy mask per
+ * color, so the engine can answer "which squares hold X" with 64-bit set operations
+ * instead of scanning squares. The Zobrist key and the material plus piece-square score
+ * are updated with every piece placed or removed, so neither needs a scan either.
+ * <p>
+ * In JSON a board is written as it always has been, an 8x8 "squares" array indexed
+ * [row - 1][column - 1]; the bitboards and other derived state are rebuilt on load
+ * rather than trusted from the payload.
+ */
+@JsonAdapter(ChessBoard.JsonFormat.class)
 public class ChessBoard {
-    private final ChessPiece[][] squares = new ChessPiece[8][8];
+    private final ChessPiece[] squares = new ChessPiece[64];
+    private final long[] pieceSets = new long[12];
+    private final long[] colorSets = new long[2];
+    private long occupied;
+    private final int[] kingSquares = {-1, -1};
+    private long zobristKey;
+    private int materialScore;
+
     public ChessBoard() {
     }
 
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        setPiece(index(position), piece);
     }
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow() - 1][position.getColumn() - 1];
+        return squares[index(position)];
     }
-    public void resetBoard() {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                squares[row][col] = null;
-            }
+
+    /**
+     * Places a piece on a square index, replacing whatever was there. The board stores
+     * the shared ChessPiece.of instance for the piece's color and type.
+     *
+     * @param square the square index (0-63)
+     * @param piece the piece to place, or null to clear the square
+     */
+    public void setPiece(int square, ChessPiece piece) {
+        if (piece != null) {
+            piece = ChessPiece.of(piece.getTeamColor(), piece.getPieceType());
         }
-        for (int col = 0; col < 8; col++) {
-            squares[1][col] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-            squares[6][col] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+        ChessPiece old = squares[square];
+        long bit = 1L << square;
+        if (old != null) {
+            zobristKey ^= Zobrist.PIECE_SQUARE[old.getIndex()][square];
+            materialScore -= Evaluation.SCORES[old.getIndex()][square];
+            pieceSets[old.getIndex()] &= ~bit;
+            colorSets[old.getTeamColor().ordinal()] &= ~bit;
+            occupied &= ~bit;
+        }
+        squares[square] = piece;
+        if (piece != null) {
+            zobristKey ^= Zobrist.PIECE_SQUARE[piece.getIndex()][square];
+            materialScore += Evaluation.SCORES[piece.getIndex()][square];
+            pieceSets[piece.getIndex()] |= bit;
+            colorSets[piece.getTeamColor().ordinal()] |= bit;
+            occupied |= bit;
+        }
+        if (old != null && old.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(old.getTeamColor());
+        }
+        if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(piece.getTeamColor());
+        }
+    }
+    private void updateKingSquare(ChessGame.TeamColor color) {
+        long kings = pieceSets[ChessPiece.index(color, ChessPiece.PieceType.KING)];
+        kingSquares[color.ordinal()] = (kings == 0) ? -1 : Long.numberOfTrailingZeros(kings);
+    }
+    public ChessPiece getPiece(int square) {
+        return squares[square];
+    }
+
+    /**
+     * @return bitboard of the squares holding the given piece
+     */
+    public long getPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceSets[ChessPiece.index(color, type)];
+    }
+    /**
+     * @return bitboard of the squares holding any piece of the given color
+     */
+    public long getPieces(ChessGame.TeamColor color) {
+        return colorSets[color.ordinal()];
+    }
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+    /**
+     * @return the Zobrist key of the piece placement, kept up to date as pieces are
+     * added and removed
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+    /**
+     * @return white's material plus piece-square score minus black's, in centipawns,
+     * kept up to date as pieces are added and removed
+     */
+    public int getMaterialScore() {
+        return materialScore;
+    }
+    /**
+     * @return the square index of the given color's king, or -1 if it has none
+     */
+    public int getKingSquare(ChessGame.TeamColor color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * Determines if any piece of the given color attacks a square, by looking outward
+     * from the square through the attack tables for each piece type
+     *
+     * @param square the square index (0-63)
+     * @param attacker the color of the attacking side
+     * @return True if an attacker piece could capture on the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor attacker) {
+        return attackersOf(square, attacker, occupied) != 0;
+    }
+
+    /**
+     * Finds every piece of the given color that attacks a square, treating the squares
+     * in occupied as the blockers for sliding pieces
+     *
+     * @param square the square index (0-63)
+     * @param attacker the color of the attacking side
+     * @param occupied occupancy to use for sliding attacks, normally getOccupied()
+     * @return bitboard of the attacking pieces
+     */
+    public long attackersOf(int square, ChessGame.TeamColor attacker, long occupied) {
+        long queens = getPieces(attacker, ChessPiece.PieceType.QUEEN);
+        return (Attacks.pawn(attacker.opponent(), square) & getPieces(attacker, ChessPiece.PieceType.PAWN))
+                | (Attacks.knight(square) & getPieces(attacker, ChessPiece.PieceType.KNIGHT))
+                | (Attacks.king(square) & getPieces(attacker, ChessPiece.PieceType.KING))
+                | (Attacks.rook(square, occupied) & (getPieces(attacker, ChessPiece.PieceType.ROOK) | queens))
+                | (Attacks.bishop(square, occupied) & (getPieces(attacker, ChessPiece.PieceType.BISHOP) | queens));
+    }
+
+    /**
+     * Removes every piece from the board
+     */
+    public void clear() {
+        Arrays.fill(squares, null);
+        Arrays.fill(pieceSets, 0L);
+        Arrays.fill(colorSets, 0L);
+        occupied = 0L;
+        Arrays.fill(kingSquares, -1);
+        zobristKey = 0L;
+        materialScore = 0;
+    }
+
+    public void resetBoard() {
+        clear();
+        for (int col = 1; col <= 8; col++) {
+            setPiece(index(2, col), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            setPiece(index(7, col), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
         ChessPiece.PieceType[] backRow = {
                 ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
                 ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING, ChessPiece.PieceType.BISHOP,
                 ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK
         };
-        for (int col = 0; col < 8; col++) {
-            squares[0][col] = new ChessPiece(ChessGame.TeamColor.WHITE, backRow[col]);
-            squares[7][col] = new ChessPiece(ChessGame.TeamColor.BLACK, backRow[col]);
+        for (int col = 1; col <= 8; col++) {
+            setPiece(index(1, col), ChessPiece.of(ChessGame.TeamColor.WHITE, backRow[col - 1]));
+            setPiece(index(8, col), ChessPiece.of(ChessGame.TeamColor.BLACK, backRow[col - 1]));
         }
     }
     public ChessBoard calcBoard() {
         ChessBoard simBoard = new ChessBoard();
+        System.arraycopy(squares, 0, simBoard.squares, 0, 64);
+        System.arraycopy(pieceSets, 0, simBoard.pieceSets, 0, 12);
+        System.arraycopy(colorSets, 0, simBoard.colorSets, 0, 2);
+        simBoard.occupied = occupied;
+        System.arraycopy(kingSquares, 0, simBoard.kingSquares, 0, 2);
+        simBoard.zobristKey = zobristKey;
+        simBoard.materialScore = materialScore;
+        return simBoard;
+    }
 
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece piece = this.getPiece(pos);
-                if (piece != null) {
-                    simBoard.addPiece(pos, new ChessPiece(piece.getTeamColor(), piece.getPieceType()));
-                }
+    /**
+     * Packs the board into 32 bytes, one nibble per square in square order (low nibble
+     * first): 0 for an empty square, otherwise the piece's bitboard slot plus one
+     *
+     * @return the packed board
+     */
+    public byte[] encode() {
+        byte[] data = new byte[32];
+        encode(data, 0);
+        return data;
+    }
+    void encode(byte[] data, int offset) {
+        for (int square = 0; square < 64; square += 2) {
+            data[offset + square / 2] = (byte) (nibble(squares[square]) | (nibble(squares[square + 1]) << 4));
+        }
+    }
+    private static int nibble(ChessPiece piece) {
+        return (piece == null) ? 0 : piece.getIndex() + 1;
+    }
+
+    /**
+     * Rebuilds a board packed by encode
+     *
+     * @param data 32 bytes produced by encode
+     * @return the unpacked board
+     * @throws IllegalArgumentException if the data is not a packed board
+     */
+    public static ChessBoard decode(byte[] data) {
+        if (data.length != 32) {
+            throw new IllegalArgumentException("packed board must be 32 bytes, was " + data.length);
+        }
+        return decode(data, 0);
+    }
+    static ChessBoard decode(byte[] data, int offset) {
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            int nibble = (data[offset + square / 2] >> ((square & 1) * 4)) & 0xF;
+            if (nibble > 12) {
+                throw new IllegalArgumentException("bad piece code " + nibble + " on square " + square);
+            }
+            if (nibble != 0) {
+                board.setPiece(square, ChessPiece.of(nibble - 1));
             }
         }
-        return simBoard;
+        return board;
+    }
+
+    /**
+     * @return the square index of a position
+     * @throws IllegalArgumentException if the position is off the board
+     */
+    static int index(ChessPosition position) {
+        int row = position.getRow();
+        int col = position.getColumn();
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            throw new IllegalArgumentException("position off the board: row " + row + ", column " + col);
+        }
+        return index(row, col);
     }
+    static int index(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessBoard that = (ChessBoard) o;
+        return Arrays.equals(pieceSets, that.pieceSets);
+    }
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobristKey);
+    }
 
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece thisPiece = this.squares[row][col];
-                ChessPiece thatPiece = that.squares[row][col];
-                if (!Objects.equals(thisPiece, thatPiece)) {
-                    return false;
+    /**
+     * Reads and writes the 8x8 JSON layout. Reading ignores any fields other than
+     * "squares".
+     */
+    static class JsonFormat extends TypeAdapter<ChessBoard> {
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            if (board == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject().name("squares").beginArray();
+            for (int row = 1; row <= 8; row++) {
+                out.beginArray();
+                for (int col = 1; col <= 8; col++) {
+                    ChessPiece piece = board.squares[index(row, col)];
+                    if (piece == null) {
+                        out.nullValue();
+                    } else {
+                        out.beginObject()
+                                .name("pieceColor").value(piece.getTeamColor().name())
+                                .name("type").value(piece.getPieceType().name())
+                                .endObject();
+                    }
                 }
+                out.endArray();
             }
+            out.endArray().endObject();
         }
-        return true;
-    }
-    @Override
-    public int hashCode() {
-        int result = 1;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                result = 31 * result + (squares[row][col] != null ? squares[row][col].hashCode() : 0);
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ChessBoard board = new ChessBoard();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!in.nextName().equals("squares")) {
+                    in.skipValue();
+                    continue;
+                }
+                int row = 0;
+                in.beginArray();
+                while (in.hasNext()) {
+                    if (row == 8) {
+                        throw new JsonParseException("board has more than 8 rows");
+                    }
+                    int col = 0;
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        if (col == 8) {
+                            throw new JsonParseException("row " + (row + 1) + " has more than 8 squares");
+                        }
+                        readSquare(in, board, row * 8 + col);
+                        col++;
+                    }
+                    in.endArray();
+                    if (col != 8) {
+                        throw new JsonParseException("row " + (row + 1) + " must have 8 squares, had " + col);
+                    }
+                    row++;
+                }
+                in.endArray();
+                if (row != 8) {
+                    throw new JsonParseException("board must have 8 rows, had " + row);
+                }
+            }
+            in.endObject();
+            return board;
+        }
+
+        private static void readSquare(JsonReader in, ChessBoard board, int square) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return;
+            }
+            String color = null;
+            String type = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "pieceColor" -> color = in.nextString();
+                    case "type" -> type = in.nextString();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (color == null || type == null) {
+                throw new JsonParseException("piece on square " + square + " needs a pieceColor and type");
+            }
+            try {
+                ChessPiece piece = ChessPiece.of(ChessGame.TeamColor.valueOf(color), ChessPiece.PieceType.valueOf(type));
+                board.setPiece(square, piece);
+            } catch (IllegalArgumentException e) {
+                throw new JsonParseException("bad piece on square " + square + ": " + color + " " + type);
             }
         }
-        return result;
     }
 }
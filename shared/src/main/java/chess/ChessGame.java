@@ -1,8 +1,10 @@
 package chess;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.List;
 
 
 /**
@@ -13,13 +15,61 @@ import java.util.Iterator;
  */
 public class ChessGame {
 
+    /**
+     * Length in bytes of a game packed by encode
+     */
+    public static final int SNAPSHOT_SIZE = 35;
+
+    /**
+     * Castling-rights bits, in FEN "KQkq" order
+     */
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+
+    /**
+     * The castling rights that survive a move touching each square: moving the king or
+     * a rook from its home square, or capturing on a rook's home square, clears the
+     * matching rights with a single AND
+     */
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[ChessBoard.index(1, 5)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[ChessBoard.index(1, 8)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[ChessBoard.index(1, 1)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[ChessBoard.index(8, 5)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[ChessBoard.index(8, 8)] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[ChessBoard.index(8, 1)] &= ~BLACK_QUEENSIDE;
+    }
+
     private TeamColor colorTurn;
     private ChessBoard board;
+    private final transient MoveList candidateMoves = new MoveList();
+    private transient MoveUndo[] undoStack = new MoveUndo[64];
+    private transient int ply;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private int castlingRights;
+    private int enPassantColumn;
+    private final transient PositionHistory history = new PositionHistory();
+    private final transient MoveList[] legalMoves = {new MoveList(), new MoveList()};
+    private final transient long[] legalMovesKey = new long[2];
+    private final transient boolean[] legalMovesValid = new boolean[2];
+    private transient int[] moveLog = new int[64];
+    private transient int moveLogSize;
+    private transient int historyIndex;
+    private transient byte[] startSnapshot;
+    private transient int startFullmoveNumber;
 
     public ChessGame() {
         colorTurn = TeamColor.WHITE;
         board = new ChessBoard();
         board.resetBoard();
+        castlingRights = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+        history.reset(getPositionKey());
     }
 
     /**
@@ -38,6 +88,7 @@ public class ChessGame {
 
     public void setTeamTurn(TeamColor team) {
         colorTurn = team;
+        invalidateLegalMoves();
     }
 
     /**
@@ -45,7 +96,11 @@ public class ChessGame {
      */
     public enum TeamColor {
         WHITE,
-        BLACK
+        BLACK;
+
+        public TeamColor opponent() {
+            return (this == WHITE) ? BLACK : WHITE;
+        }
     }
 
     /**
@@ -56,61 +111,264 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        ChessBoard board = getBoard();
         ChessPiece piece = board.getPiece(startPosition);
 
         if (piece == null) {
             return Collections.emptyList();
         }
 
-        Collection<ChessMove> possibleMoves = piece.pieceMoves(board, startPosition);
-
-        Iterator<ChessMove> testMoves = possibleMoves.iterator();
-        while (testMoves.hasNext()) {
-            ChessMove move = testMoves.next();
-            ChessBoard currentBoard = board.calcBoard();
-            ChessPiece movingPiece = currentBoard.getPiece(startPosition);
-            currentBoard.addPiece(move.getEndPosition(), movingPiece);
-            currentBoard.addPiece(startPosition, null);
-
-            if (InCheckTest(currentBoard, piece.getTeamColor())) {
-                testMoves.remove();
+        int square = ChessBoard.index(startPosition);
+        MoveList moves = legalMoves(piece.getTeamColor());
+        Collection<ChessMove> possibleMoves = new ArrayList<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (ChessMove.from(move) == square) {
+                possibleMoves.add(ChessMove.decode(move));
             }
         }
         return possibleMoves;
     }
 
-    private boolean InCheckTest(ChessBoard board, TeamColor teamColor) {
-        ChessPosition king = null;
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING
-                        && piece.getTeamColor() == teamColor) {
-                    king = position;
-                    break;
-                }
+    /**
+     * Returns every legal move for a team in the current position. The list is computed
+     * once per position and color and reused until the position changes, so repeated
+     * validMoves, checkmate and stalemate queries don't regenerate it. Callers must not
+     * modify the list or hold it across moves.
+     */
+    MoveList legalMoves(TeamColor teamColor) {
+        int color = teamColor.ordinal();
+        long key = getPositionKey();
+        if (!legalMovesValid[color] || legalMovesKey[color] != key) {
+            legalMoves[color].clear();
+            generateLegalMoves(teamColor, legalMoves[color]);
+            legalMovesKey[color] = key;
+            legalMovesValid[color] = true;
+        }
+        return legalMoves[color];
+    }
+
+    /**
+     * Appends every legal move for a team in the current position to a caller-owned
+     * buffer, bypassing the cache.
+     * <p>
+     * Checkers and pinned pieces are found once up front, so moves are emitted already
+     * legal instead of being played and tested: in double check only the king moves; in
+     * single check other pieces must capture the checker or block its ray; a pinned
+     * piece must stay on the line through its king; and the king may not step onto an
+     * attacked square (computed with the king lifted off the board so it cannot hide
+     * behind itself from a slider).
+     */
+    void generateLegalMoves(TeamColor teamColor, MoveList moves) {
+        int king = board.getKingSquare(teamColor);
+        if (king < 0) {
+            for (long pieces = board.getPieces(teamColor); pieces != 0; pieces &= pieces - 1) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                board.getPiece(square).pieceMoves(board, square, moves);
             }
+            return;
+        }
+        TeamColor enemy = teamColor.opponent();
+        long own = board.getPieces(teamColor);
+        long occupied = board.getOccupied();
+
+        long withoutKing = occupied & ~(1L << king);
+        for (long targets = Attacks.king(king) & ~own; targets != 0; targets &= targets - 1) {
+            int target = Long.numberOfTrailingZeros(targets);
+            if (board.attackersOf(target, enemy, withoutKing) == 0) {
+                moves.add(ChessMove.encode(king, target, null));
+            }
+        }
+
+        long checkers = board.attackersOf(king, enemy, occupied);
+        if (checkers == 0 && castlingRights != 0) {
+            addCastlingMoves(teamColor, king, castlingRights & placementRights(board), occupied, moves);
+        }
+        if (enPassantColumn != 0 && teamColor == colorTurn) {
+            addEnPassantMoves(teamColor, king, occupied, moves);
+        }
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+        long allowed = -1L;
+        if (checkers != 0) {
+            allowed = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
         }
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
 
-                if (piece != null && piece.getTeamColor() != teamColor) {
-                    Collection<ChessMove> opponentMoves = piece.pieceMoves(board, position);
+        long pinned = 0L;
+        long enemyQueens = board.getPieces(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = (Attacks.rook(king, 0L) & (board.getPieces(enemy, ChessPiece.PieceType.ROOK) | enemyQueens))
+                | (Attacks.bishop(king, 0L) & (board.getPieces(enemy, ChessPiece.PieceType.BISHOP) | enemyQueens));
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & own;
+            }
+        }
 
-                    for (ChessMove move : opponentMoves) {
-                        if (move.getEndPosition().equals(king)) {
-                            return true;
-                        }
-                    }
+        for (long pieces = own & ~(1L << king); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            long squareAllowed = allowed;
+            if ((pinned & (1L << square)) != 0) {
+                squareAllowed &= Attacks.line(king, square);
+            }
+            candidateMoves.clear();
+            board.getPiece(square).pieceMoves(board, square, candidateMoves);
+            for (int i = 0; i < candidateMoves.size(); i++) {
+                int move = candidateMoves.get(i);
+                if ((squareAllowed & (1L << ChessMove.to(move))) != 0) {
+                    moves.add(move);
                 }
             }
         }
-        return false;
     }
+
+    /**
+     * Adds the castling moves allowed by the team's rights. The rights are first ANDed
+     * with what the placement allows, since a caller editing the board through getBoard
+     * can move the king or rook without the game seeing a move; after that the king and
+     * rook are known to be on their home squares, so only the squares between them need
+     * to be empty and the two squares the king crosses unattacked.
+     */
+    private void addCastlingMoves(TeamColor teamColor, int king, int rights, long occupied, MoveList moves) {
+        int kingside = (teamColor == TeamColor.WHITE) ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenside = (teamColor == TeamColor.WHITE) ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        TeamColor enemy = teamColor.opponent();
+        if ((rights & kingside) != 0
+                && (Attacks.between(king, king + 3) & occupied) == 0
+                && board.attackersOf(king + 1, enemy, occupied) == 0
+                && board.attackersOf(king + 2, enemy, occupied) == 0) {
+            moves.add(ChessMove.encode(king, king + 2, null));
+        }
+        if ((rights & queenside) != 0
+                && (Attacks.between(king, king - 4) & occupied) == 0
+                && board.attackersOf(king - 1, enemy, occupied) == 0
+                && board.attackersOf(king - 2, enemy, occupied) == 0) {
+            moves.add(ChessMove.encode(king, king - 2, null));
+        }
+    }
+
+    /**
+     * Adds the en passant captures onto the square behind the pawn that just moved two
+     * squares. Each one is tried on an occupancy mask with both pawns lifted and the
+     * capturer placed, since removing two pawns from one rank can expose the king in a
+     * way the pin detection above does not see.
+     */
+    private void addEnPassantMoves(TeamColor teamColor, int king, long occupied, MoveList moves) {
+        TeamColor enemy = teamColor.opponent();
+        int target = ChessBoard.index(teamColor == TeamColor.WHITE ? 6 : 3, enPassantColumn);
+        int captured = (teamColor == TeamColor.WHITE) ? target - 8 : target + 8;
+        long pawns = Attacks.pawn(enemy, target) & board.getPieces(teamColor, ChessPiece.PieceType.PAWN);
+        for (; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            long after = (occupied ^ (1L << from) ^ (1L << captured)) | (1L << target);
+            if ((board.attackersOf(king, enemy, after) & ~(1L << captured)) == 0) {
+                moves.add(ChessMove.encode(from, target, null));
+            }
+        }
+    }
+
+    private void invalidateLegalMoves() {
+        legalMovesValid[0] = false;
+        legalMovesValid[1] = false;
+    }
+
+    private boolean InCheckTest(ChessBoard board, TeamColor teamColor) {
+        int king = board.getKingSquare(teamColor);
+        return king >= 0 && board.isSquareAttacked(king, teamColor.opponent());
+    }
+
+    /**
+     * Plays an encoded move on the board in place, without checking that it is legal,
+     * and pushes an undo record so undoMove can restore the previous position exactly.
+     *
+     * @param move a move encoded with ChessMove.encode
+     */
+    void doMove(int move) {
+        if (ply == undoStack.length) {
+            MoveUndo[] grown = new MoveUndo[undoStack.length * 2];
+            System.arraycopy(undoStack, 0, grown, 0, ply);
+            undoStack = grown;
+        }
+        MoveUndo undo = undoStack[ply];
+        if (undo == null) {
+            undo = new MoveUndo();
+            undoStack[ply] = undo;
+        }
+        ply++;
+
+        int from = ChessMove.from(move);
+        int to = ChessMove.to(move);
+        ChessPiece piece = board.getPiece(from);
+        ChessPiece.PieceType type = piece.getPieceType();
+        int capturedSquare = to;
+        if (type == ChessPiece.PieceType.PAWN && board.getPiece(to) == null
+                && ChessBoard.column(from) != ChessBoard.column(to)) {
+            capturedSquare = ChessBoard.index(ChessBoard.row(from), ChessBoard.column(to));
+        }
+        undo.move = move;
+        undo.moved = piece;
+        undo.captured = board.getPiece(capturedSquare);
+        undo.capturedSquare = capturedSquare;
+        undo.previousTurn = colorTurn;
+        undo.previousHalfmoveClock = halfmoveClock;
+        undo.previousCastlingRights = castlingRights;
+        undo.previousEnPassantColumn = enPassantColumn;
+
+        ChessPiece.PieceType promotion = ChessMove.promotion(move);
+        if (capturedSquare != to) {
+            board.setPiece(capturedSquare, null);
+        }
+        board.setPiece(to, promotion == null ? piece : ChessPiece.of(piece.getTeamColor(), promotion));
+        board.setPiece(from, null);
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            int rookFrom = (to > from) ? to + 1 : to - 2;
+            int rookTo = (to > from) ? to - 1 : to + 1;
+            board.setPiece(rookTo, board.getPiece(rookFrom));
+            board.setPiece(rookFrom, null);
+        }
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        enPassantColumn = 0;
+        colorTurn = piece.getTeamColor().opponent();
+        if (type == ChessPiece.PieceType.PAWN && Math.abs(to - from) == 16) {
+            updateEnPassant(ChessBoard.column(to));
+        }
+        if (undo.captured != null || type == ChessPiece.PieceType.PAWN) {
+            halfmoveClock = 0;
+        } else {
+            halfmoveClock++;
+        }
+        if (undo.previousTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
+        history.push(getPositionKey());
+    }
+
+    /**
+     * Takes back the last move played with doMove
+     */
+    void undoMove() {
+        MoveUndo undo = undoStack[--ply];
+        int from = ChessMove.from(undo.move);
+        int to = ChessMove.to(undo.move);
+        board.setPiece(from, undo.moved);
+        board.setPiece(to, null);
+        board.setPiece(undo.capturedSquare, undo.captured);
+        if (undo.moved.getPieceType() == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            int rookFrom = (to > from) ? to + 1 : to - 2;
+            int rookTo = (to > from) ? to - 1 : to + 1;
+            board.setPiece(rookFrom, board.getPiece(rookTo));
+            board.setPiece(rookTo, null);
+        }
+        colorTurn = undo.previousTurn;
+        halfmoveClock = undo.previousHalfmoveClock;
+        castlingRights = undo.previousCastlingRights;
+        enPassantColumn = undo.previousEnPassantColumn;
+        if (undo.previousTurn == TeamColor.BLACK) {
+            fullmoveNumber--;
+        }
+        history.pop();
+    }
+
     /**
      * Makes a move in a chess game
      *
@@ -118,39 +376,117 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        Collection<ChessMove> moves = validMoves(move.getStartPosition());
-        if (!moves.contains(move)) {
+        int encoded;
+        try {
+            encoded = move.encode();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidMoveException(e.getMessage());
+        }
+        ChessPiece piece = board.getPiece(ChessMove.from(encoded));
+        if (piece == null || !legalMoves(piece.getTeamColor()).contains(encoded)) {
             throw new InvalidMoveException("illegal move");
         }
-        ChessPiece piece = board.getPiece(move.getStartPosition());
         if (piece.getTeamColor() != colorTurn) {
             throw new InvalidMoveException("wrong turn");
         }
-        board.addPiece(move.getEndPosition(), piece);
-        board.addPiece(move.getStartPosition(), null);
-
-
-        ChessPiece opp = board.getPiece(move.getEndPosition());
-        if(opp != null && opp.getTeamColor() != colorTurn) {
-            board.addPiece(move.getEndPosition(), opp);
+        if (historyIndex == 0) {
+            startSnapshot = encode();
+            startFullmoveNumber = fullmoveNumber;
         }
+        doMove(encoded);
+        if (historyIndex == moveLog.length) {
+            moveLog = Arrays.copyOf(moveLog, moveLog.length * 2);
+        }
+        moveLog[historyIndex++] = encoded;
+        moveLogSize = historyIndex;
+        invalidateLegalMoves();
+    }
 
-        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
-            int promoteRank = (piece.getTeamColor() == TeamColor.WHITE) ? 8 : 1;
-            if (move.getEndPosition().getRow() == promoteRank) {
-                ChessPiece.PieceType upgrade = move.getPromotionPiece();
-                if (upgrade == null) {
-                    upgrade = ChessPiece.PieceType.QUEEN;
-                }
-                board.addPiece(move.getEndPosition(), new ChessPiece(piece.getTeamColor(), upgrade));
-            }
+    /**
+     * Gets the moves made with makeMove since the board was set, in order. Moves taken
+     * back with undo stay in the list until a new move replaces them, so a viewer can
+     * step forward again with redo.
+     *
+     * @return every move in the history, including undone ones
+     */
+    public List<ChessMove> getMoveHistory() {
+        List<ChessMove> moves = new ArrayList<>(moveLogSize);
+        for (int i = 0; i < moveLogSize; i++) {
+            moves.add(ChessMove.decode(moveLog[i]));
         }
+        return moves;
+    }
 
+    /**
+     * @return how many moves of the history are currently played; the next redo plays
+     * the move at this index
+     */
+    public int getHistoryIndex() {
+        return historyIndex;
+    }
 
+    /**
+     * Takes back the last move played, restoring the previous position from its undo
+     * record in constant time
+     *
+     * @return True if a move was taken back, false at the start of the history
+     */
+    public boolean undo() {
+        if (historyIndex == 0) {
+            return false;
+        }
+        undoMove();
+        historyIndex--;
+        invalidateLegalMoves();
+        return true;
+    }
 
-        colorTurn = (colorTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+    /**
+     * Plays the next move of the history again after an undo
+     *
+     * @return True if a move was replayed, false at the end of the history
+     */
+    public boolean redo() {
+        if (historyIndex == moveLogSize) {
+            return false;
+        }
+        doMove(moveLog[historyIndex++]);
+        invalidateLegalMoves();
+        return true;
+    }
 
+    /**
+     * Moves through the history to the position after the given number of moves, one
+     * undo or redo per move in between
+     *
+     * @param index number of history moves to have played, 0 for the start position
+     * @throws IllegalArgumentException if the index is outside the history
+     */
+    public void seek(int index) {
+        if (index < 0 || index > moveLogSize) {
+            throw new IllegalArgumentException("history index " + index + " outside 0-" + moveLogSize);
+        }
+        while (historyIndex > index) {
+            undo();
+        }
+        while (historyIndex < index) {
+            redo();
+        }
+    }
 
+    /**
+     * Rebuilds the position the history starts from, from a snapshot taken when the
+     * first move of the history was made, without touching this game
+     *
+     * @return a new game in the position the history starts from
+     */
+    public ChessGame getStartPosition() {
+        if (historyIndex == 0) {
+            return copy();
+        }
+        ChessGame start = decode(startSnapshot);
+        start.setClocks(start.halfmoveClock, startFullmoveNumber);
+        return start;
     }
 
     /**
@@ -175,19 +511,7 @@ public class ChessGame {
      */
     public boolean isInCheckmate(TeamColor teamColor) {
         if (isInCheck(teamColor)) {
-            for (int row = 1; row <= 8; row++) {
-                for (int col = 1; col <= 8; col++) {
-                    ChessPosition position = new ChessPosition(row, col);
-                    ChessPiece piece = board.getPiece(position);
-                    if (piece != null && piece.getTeamColor() == teamColor) {
-                        Collection<ChessMove> moves = validMoves(position);
-                        if (moves != null && !moves.isEmpty()) {
-                            return false;
-                        }
-                    }
-                }
-            }
-            return true;
+            return legalMoves(teamColor).isEmpty();
         }
         return false;
     }
@@ -202,24 +526,191 @@ public class ChessGame {
      */
     public boolean isInStalemate(TeamColor teamColor) {
         if (!isInCheck(teamColor)) {
-            for (int row = 1; row <= 8; row++) {
-                for (int col = 1; col <= 8; col++) {
-                    ChessPosition position = new ChessPosition(row, col);
-                    ChessPiece piece = board.getPiece(position);
-                    if (piece != null && piece.getTeamColor() == teamColor) {
-                        Collection<ChessMove> moves = validMoves(position);
-                        if (moves != null && !moves.isEmpty()) {
-                            return false;
-                        }
-                    }
-                }
-            }
-            return true;
+            return legalMoves(teamColor).isEmpty();
         }
         return false;
     }
 
 
+    /**
+     * @return the number of moves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the move number, starting at 1 and increasing after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Sets the clocks for a position loaded from outside the game (a FEN record or a
+     * snapshot)
+     */
+    void setClocks(int halfmoveClock, int fullmoveNumber) {
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Restarts the repetition history from the current position. A position loaded from
+     * outside the game calls this once its side to move, castling rights and en passant
+     * column are all set, since setBoard records the first key before they are.
+     */
+    void resetHistory() {
+        history.reset(getPositionKey());
+    }
+
+    /**
+     * @return the castling rights still held, as WHITE_KINGSIDE, WHITE_QUEENSIDE,
+     * BLACK_KINGSIDE and BLACK_QUEENSIDE bits
+     */
+    int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the column (1-8) the side to move can capture en passant on, or 0 if none
+     */
+    int getEnPassantColumn() {
+        return enPassantColumn;
+    }
+
+    /**
+     * Sets the castling rights and en passant column for a position loaded from outside
+     * the game (a FEN record or a snapshot). Rights whose king or rook is off its home
+     * square are dropped, and so is an en passant column no pawn can capture on, so the
+     * position key matches the same position reached by play.
+     */
+    void setCastlingState(int castlingRights, int enPassantColumn) {
+        this.castlingRights = castlingRights & placementRights(board);
+        updateEnPassant(enPassantColumn);
+        invalidateLegalMoves();
+    }
+
+    /**
+     * Records the column of a pawn that just moved two squares, but only if a pawn of
+     * the side to move stands ready to capture it, so positions that differ only by an
+     * unusable en passant square share a key
+     */
+    private void updateEnPassant(int column) {
+        enPassantColumn = 0;
+        if (column < 1 || column > 8) {
+            return;
+        }
+        TeamColor pusher = colorTurn.opponent();
+        int target = ChessBoard.index(colorTurn == TeamColor.WHITE ? 6 : 3, column);
+        int pushed = ChessBoard.index(colorTurn == TeamColor.WHITE ? 5 : 4, column);
+        if ((board.getPieces(pusher, ChessPiece.PieceType.PAWN) & (1L << pushed)) != 0
+                && board.getPiece(target) == null
+                && (Attacks.pawn(pusher, target) & board.getPieces(colorTurn, ChessPiece.PieceType.PAWN)) != 0) {
+            enPassantColumn = column;
+        }
+    }
+
+    /**
+     * @return the castling rights a board's placement allows: those whose king and rook
+     * are on their home squares
+     */
+    private static int placementRights(ChessBoard board) {
+        int rights = 0;
+        long whiteRooks = board.getPieces(TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        long blackRooks = board.getPieces(TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        if (board.getKingSquare(TeamColor.WHITE) == ChessBoard.index(1, 5)) {
+            if ((whiteRooks & (1L << ChessBoard.index(1, 8))) != 0) {
+                rights |= WHITE_KINGSIDE;
+            }
+            if ((whiteRooks & (1L << ChessBoard.index(1, 1))) != 0) {
+                rights |= WHITE_QUEENSIDE;
+            }
+        }
+        if (board.getKingSquare(TeamColor.BLACK) == ChessBoard.index(8, 5)) {
+            if ((blackRooks & (1L << ChessBoard.index(8, 8))) != 0) {
+                rights |= BLACK_KINGSIDE;
+            }
+            if ((blackRooks & (1L << ChessBoard.index(8, 1))) != 0) {
+                rights |= BLACK_QUEENSIDE;
+            }
+        }
+        return rights;
+    }
+
+    /**
+     * Determines if the current position has occurred at least three times since the
+     * board was set, with the same side to move
+     *
+     * @return True if the position has been repeated three times
+     */
+    public boolean isThreefoldRepetition() {
+        return history.repetitions(getPositionKey(), halfmoveClock) >= 3;
+    }
+
+    /**
+     * Determines if the current position has occurred before since the last capture or
+     * pawn move. A search treats this as a draw, since the side that could avoid the
+     * repetition would already have done so.
+     */
+    boolean isRepetition() {
+        return history.repetitions(getPositionKey(), halfmoveClock) >= 2;
+    }
+
+    /**
+     * Determines if fifty moves by each side have passed with no capture or pawn move
+     *
+     * @return True if the fifty-move rule applies
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * Determines if the game is drawn by threefold repetition or the fifty-move rule.
+     * Stalemate is reported separately by isInStalemate.
+     *
+     * @return True if either draw rule applies
+     */
+    public boolean isDraw() {
+        return isFiftyMoveRule() || isThreefoldRepetition();
+    }
+
+    /**
+     * Gets the Zobrist key of the current position: the board's piece placement, the
+     * side to move, the castling rights and the en passant column. Equal positions always
+     * have equal keys, so the key can stand in for the position in caches and repetition
+     * checks.
+     *
+     * @return 64-bit key of the current position
+     */
+    public final long getPositionKey() {
+        long key = board.getZobristKey();
+        if (colorTurn == TeamColor.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+        return key ^ Zobrist.CASTLING[castlingRights] ^ Zobrist.EN_PASSANT[enPassantColumn];
+    }
+
+    /**
+     * Looks up the known continuations from the current position. Entries whose move is
+     * not legal here (a key collision in the book) are dropped.
+     *
+     * @param book the opening book to consult
+     * @return the legal book moves for the side to move, strongest first; empty once
+     * the game has left the book
+     */
+    public List<ChessMove> getBookMoves(OpeningBook book) {
+        List<ChessMove> moves = new ArrayList<>();
+        MoveList legal = legalMoves(colorTurn);
+        for (OpeningBook.Entry entry : book.lookup(getPositionKey())) {
+            if (legal.contains(entry.move().encode())) {
+                moves.add(entry.move());
+            }
+        }
+        return moves;
+    }
+
     /**
      * Sets this game's chessboard with a given board
      *
@@ -227,6 +718,15 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        ply = 0;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        castlingRights = placementRights(board);
+        enPassantColumn = 0;
+        moveLogSize = 0;
+        historyIndex = 0;
+        history.reset(getPositionKey());
+        invalidateLegalMoves();
     }
     /**
      * Gets the current chessboard
@@ -237,4 +737,66 @@ public class ChessGame {
 
         return board;
     }
+
+    /**
+     * Packs the game state into SNAPSHOT_SIZE bytes:
+     * <ul>
+     *     <li>bytes 0-31: the board, as ChessBoard.encode</li>
+     *     <li>byte 32: bit 0 set if black is to move; bits 4-7 castling rights</li>
+     *     <li>byte 33: en passant column (1-8), or 0 for none</li>
+     *     <li>byte 34: halfmove clock, saturated at 255</li>
+     * </ul>
+     * The fullmove number is not stored.
+     * @return the packed game
+     */
+    public byte[] encode() {
+        byte[] data = new byte[SNAPSHOT_SIZE];
+        board.encode(data, 0);
+        data[32] = (byte) ((colorTurn == TeamColor.BLACK ? 1 : 0) | (castlingRights << 4));
+        data[33] = (byte) enPassantColumn;
+        data[34] = (byte) Math.min(halfmoveClock, 255);
+        return data;
+    }
+
+    /**
+     * Rebuilds a game packed by encode. The result has no move history, and its fullmove
+     * number is 1 since encode does not store it.
+     *
+     * @param data SNAPSHOT_SIZE bytes produced by encode
+     * @return the unpacked game
+     * @throws IllegalArgumentException if the data is not a packed game
+     */
+    public static ChessGame decode(byte[] data) {
+        if (data.length != SNAPSHOT_SIZE) {
+            throw new IllegalArgumentException("packed game must be " + SNAPSHOT_SIZE + " bytes, was " + data.length);
+        }
+        if (data[33] < 0 || data[33] > 8) {
+            throw new IllegalArgumentException("bad en passant column " + data[33]);
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(ChessBoard.decode(data, 0));
+        game.setTeamTurn((data[32] & 1) != 0 ? TeamColor.BLACK : TeamColor.WHITE);
+        game.setCastlingState((data[32] >> 4) & 0xF, data[33]);
+        game.setClocks(data[34] & 0xFF, 1);
+        game.resetHistory();
+        return game;
+    }
+
+    /**
+     * Creates an independent game in the same position, with its own board, so it can
+     * be searched or played on another thread. Draw-rule state carries over; moves made
+     * before the copy cannot be undone on it.
+     *
+     * @return a copy of this game
+     */
+    public ChessGame copy() {
+        ChessGame copy = new ChessGame();
+        copy.board = board.calcBoard();
+        copy.colorTurn = colorTurn;
+        copy.castlingRights = castlingRights;
+        copy.enPassantColumn = enPassantColumn;
+        copy.setClocks(halfmoveClock, fullmoveNumber);
+        copy.history.copyFrom(history);
+        return copy;
+    }
 }
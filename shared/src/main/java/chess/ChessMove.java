@@ -6,6 +6,8 @@ import java.util.Objects;
  * Represents moving a chess piece on a chessboard
  */
 public class ChessMove {
+    private static final ChessPiece.PieceType[] PROMOTION_TYPES = ChessPiece.PieceType.values();
+
     private final ChessPosition startPosition;
     private final ChessPosition endPosition;
     private final ChessPiece.PieceType promotionPiece;
@@ -24,6 +26,31 @@ public class ChessMove {
     public ChessPiece.PieceType getPromotionPiece() {
         return promotionPiece;
     }
+
+    /**
+     * Packs a move into an int: bits 0-5 hold the start square, bits 6-11 the end square
+     * and bits 12-14 the promotion piece (0 for none, otherwise PieceType ordinal + 1).
+     * Squares use ChessBoard's 0-63 numbering.
+     */
+    public static int encode(int from, int to, ChessPiece.PieceType promotion) {
+        return from | (to << 6) | ((promotion == null ? 0 : promotion.ordinal() + 1) << 12);
+    }
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+    public static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 0x7;
+        return code == 0 ? null : PROMOTION_TYPES[code - 1];
+    }
+    public static ChessMove decode(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+    }
+    public int encode() {
+        return encode(ChessBoard.index(startPosition), ChessBoard.index(endPosition), promotionPiece);
+    }
     @Override
     public boolean equals(Object move) {
         if (this == move) return true;
@@ -35,6 +62,7 @@ public class ChessMove {
     }
     @Override
     public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+        int result = 31 * Objects.hashCode(startPosition) + Objects.hashCode(endPosition);
+        return 31 * result + (promotionPiece == null ? 0 : promotionPiece.ordinal() + 1);
     }
 }
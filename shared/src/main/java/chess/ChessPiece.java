@@ -2,7 +2,6 @@ package chess;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Objects;
 
 /**
  * Represents a single chess piece
@@ -12,6 +11,16 @@ import java.util.Objects;
  */
 public class ChessPiece {
 
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[index(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
 
@@ -19,6 +28,19 @@ public class ChessPiece {
         this.pieceColor = pieceColor;
         this.type = type;
     }
+
+    /**
+     * @return the shared instance for a color and piece type
+     */
+    public static ChessPiece of(ChessGame.TeamColor color, PieceType type) {
+        return PIECES[index(color, type)];
+    }
+    /**
+     * @return the shared instance for a bitboard slot (see getIndex)
+     */
+    static ChessPiece of(int index) {
+        return PIECES[index];
+    }
     public enum PieceType {
         KING,
         QUEEN,
@@ -33,199 +55,96 @@ public class ChessPiece {
     public PieceType getPieceType() {
         return type;
     }
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        if (type == PieceType.BISHOP) {
-            bishopMoves(board, myPosition, moves);
-        } else if (type == PieceType.ROOK) {
-            rookMoves(board, myPosition, moves);
-        } else if (type == PieceType.QUEEN) {
-            queenMoves(board, myPosition, moves);
-        }else if (type == PieceType.KNIGHT) {
-            knightMoves(board, myPosition, moves);
-        }else if (type == PieceType.KING) {
-            kingMoves(board, myPosition, moves);
-        }else if (type == PieceType.PAWN) {
-            pawnMoves(board, myPosition, moves);
-            }
-        return moves;
-    }
-    private void bishopMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int[][] directions = {
-                {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
-        };
-        for (int[] direction : directions) {
-            int row = myPosition.getRow();
-            int col = myPosition.getColumn();
 
-            while (true) {
-                row += direction[0];
-                col += direction[1];
-                ChessPosition newPosition = new ChessPosition(row, col);
-                if (inRange(newPosition)) {
-                    break;
-                }
-                if (freeSpace(board, newPosition)) {
-                    moves.add(new ChessMove(myPosition, newPosition, null));
-                } else {
-                    if (otherColor(board, newPosition)) {
-                        moves.add(new ChessMove(myPosition, newPosition, null));
-                    }
-                    break;
-                }
-            }
-        }
+    /**
+     * @return this piece's bitboard slot on a ChessBoard (0-5 white, 6-11 black)
+     */
+    int getIndex() {
+        return index(pieceColor, type);
     }
-
-    private void rookMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int[][] directions = {
-                {1, 0}, {-1, 0}, {0, 1}, {0, -1}
-        };
-        for (int[] direction : directions) {
-            int row = myPosition.getRow();
-            int col = myPosition.getColumn();
-
-            while (true) {
-                row += direction[0];
-                col += direction[1];
-                ChessPosition newPosition = new ChessPosition(row, col);
-                if (inRange(newPosition)) {
-                    break;
-                }
-                if (freeSpace(board, newPosition)) {
-                    moves.add(new ChessMove(myPosition, newPosition, null));
-                } else {
-                    if (otherColor(board, newPosition)) {
-                        moves.add(new ChessMove(myPosition, newPosition, null));
-                    }
-                    break;
-                }
-            }
+    static int index(ChessGame.TeamColor color, PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        MoveList buffer = new MoveList(32);
+        pieceMoves(board, ChessBoard.index(myPosition), buffer);
+        Collection<ChessMove> moves = new ArrayList<>(buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            moves.add(ChessMove.decode(buffer.get(i)));
         }
+        return moves;
     }
 
-    private void queenMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int[][] directions = {
-                {1, 0}, {-1, 0}, {0, 1}, {0, -1},{1, 1}, {1, -1}, {-1, 1}, {-1, -1}
-        };
-        for (int[] direction : directions) {
-            int row = myPosition.getRow();
-            int col = myPosition.getColumn();
-
-            while (true) {
-                row += direction[0];
-                col += direction[1];
-                ChessPosition newPosition = new ChessPosition(row, col);
-                if (inRange(newPosition)) {
-                    break;
-                }
-                if (freeSpace(board, newPosition)) {
-                    moves.add(new ChessMove(myPosition, newPosition, null));
-                } else {
-                    if (otherColor(board, newPosition)) {
-                        moves.add(new ChessMove(myPosition, newPosition, null));
-                    }
-                    break;
-                }
-            }
+    /**
+     * Appends this piece's moves from the given square to a caller-owned buffer, encoded
+     * with ChessMove.encode. Nothing is allocated, so the same buffer can be reused
+     * across calls.
+     *
+     * @param board the board the piece is on
+     * @param square the piece's square index (0-63)
+     * @param moves buffer to append to; it is not cleared first
+     */
+    public void pieceMoves(ChessBoard board, int square, MoveList moves) {
+        long own = board.getPieces(pieceColor);
+        if (type == PieceType.BISHOP) {
+            addMoves(square, Attacks.bishop(square, board.getOccupied()) & ~own, moves);
+        } else if (type == PieceType.ROOK) {
+            addMoves(square, Attacks.rook(square, board.getOccupied()) & ~own, moves);
+        } else if (type == PieceType.QUEEN) {
+            addMoves(square, Attacks.queen(square, board.getOccupied()) & ~own, moves);
+        } else if (type == PieceType.KNIGHT) {
+            addMoves(square, Attacks.knight(square) & ~own, moves);
+        } else if (type == PieceType.KING) {
+            addMoves(square, Attacks.king(square) & ~own, moves);
+        } else if (type == PieceType.PAWN) {
+            pawnMoves(board, square, moves);
         }
     }
 
-    private void knightMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int[][] directions = {
-                {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}
-        };
-        for (int[] direction : directions) {
-            int row = myPosition.getRow() + direction[0];
-            int col = myPosition.getColumn() + direction[1];
-            ChessPosition newPosition = new ChessPosition(row, col);
-            if (offBoard(newPosition)) {
-                continue;
-            }
-            if (freeSpace(board, newPosition)) {
-                moves.add(new ChessMove(myPosition, newPosition, null));
-            } else if (otherColor(board, newPosition)) {
-                moves.add(new ChessMove(myPosition, newPosition, null));
-            }
+    private void addMoves(int square, long targets, MoveList moves) {
+        for (; targets != 0; targets &= targets - 1) {
+            moves.add(ChessMove.encode(square, Long.numberOfTrailingZeros(targets), null));
         }
     }
-    private void kingMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int[][] directions = {
-                {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
-        };
-        for (int[] direction : directions) {
-            int row = myPosition.getRow() + direction[0];
-            int col = myPosition.getColumn() + direction[1];
-            ChessPosition newPosition = new ChessPosition(row, col);
-            if (offBoard(newPosition)) {
-                continue;
-            }
-            if (freeSpace(board, newPosition)) {
-                moves.add(new ChessMove(myPosition, newPosition, null));
-            } else if (otherColor(board, newPosition)) {
-                moves.add(new ChessMove(myPosition, newPosition, null));
-            }
+
+    private void pawnMoves(ChessBoard board, int square, MoveList moves) {
+        int startRow = (pieceColor == ChessGame.TeamColor.WHITE) ? 1 : 6;
+        int step = (pieceColor == ChessGame.TeamColor.WHITE) ? 1 : -1;
+        int promotion = (pieceColor == ChessGame.TeamColor.WHITE) ? 7 : 0;
+        int row = (square >>> 3) + step;
+        int col = square & 7;
+        if (row < 0 || row > 7) {
+            return;
         }
-    }
-    private void pawnMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        int row = (pieceColor == ChessGame.TeamColor.WHITE) ? 2 : 7;
-        int col = (pieceColor == ChessGame.TeamColor.WHITE) ? 1 : -1;
-        int promotion = (pieceColor == ChessGame.TeamColor.WHITE) ? 8 : 1;
-        ChessPosition forwardOne = new ChessPosition(myPosition.getRow() + col, myPosition.getColumn());
-        if (freeSpace(board, forwardOne)) {
-            if (forwardOne.getRow() == promotion) {
-                addPromotionMoves(myPosition, forwardOne, moves);
+        long occupied = board.getOccupied();
+        int forwardOne = row * 8 + col;
+        if ((occupied & (1L << forwardOne)) == 0) {
+            if (row == promotion) {
+                addPromotionMoves(square, forwardOne, moves);
             } else {
-                moves.add(new ChessMove(myPosition, forwardOne, null));
+                moves.add(ChessMove.encode(square, forwardOne, null));
             }
-            if (myPosition.getRow() == row) {
-                ChessPosition forwardTwo = new ChessPosition(myPosition.getRow() + 2 * col, myPosition.getColumn());
-                if (freeSpace(board, forwardTwo)) {
-                    moves.add(new ChessMove(myPosition, forwardTwo, null));
+            if ((square >>> 3) == startRow) {
+                int forwardTwo = forwardOne + 8 * step;
+                if ((occupied & (1L << forwardTwo)) == 0) {
+                    moves.add(ChessMove.encode(square, forwardTwo, null));
                 }
             }
         }
-        ChessPosition[] diagonal = {
-                new ChessPosition(myPosition.getRow() + col, myPosition.getColumn() - 1),
-                new ChessPosition(myPosition.getRow() + col, myPosition.getColumn() + 1)
-        };
-        for (ChessPosition position : diagonal) {
-            if (otherColor(board, position)) {
-                if (position.getRow() == promotion) {
-                    addPromotionMoves(myPosition, position, moves);
-                } else {
-                    moves.add(new ChessMove(myPosition, position, null));
-                }
+        long captures = Attacks.pawn(pieceColor, square) & board.getPieces(pieceColor.opponent());
+        if (row == promotion) {
+            for (; captures != 0; captures &= captures - 1) {
+                addPromotionMoves(square, Long.numberOfTrailingZeros(captures), moves);
             }
+        } else {
+            addMoves(square, captures, moves);
         }
     }
-    private void addPromotionMoves(ChessPosition start, ChessPosition end, Collection<ChessMove> moves) {
-        moves.add(new ChessMove(start, end, ChessPiece.PieceType.QUEEN));
-        moves.add(new ChessMove(start, end, ChessPiece.PieceType.BISHOP));
-        moves.add(new ChessMove(start, end, ChessPiece.PieceType.KNIGHT));
-        moves.add(new ChessMove(start, end, ChessPiece.PieceType.ROOK));
-    }
-
-    private boolean freeSpace(ChessBoard board, ChessPosition position) {
-        return position.getRow() >= 1 && position.getRow() <= 8 &&
-                position.getColumn() >= 1 && position.getColumn() <= 8 &&
-                board.getPiece(position) == null;
-    }
-    private boolean otherColor(ChessBoard board, ChessPosition position) {
-        if (offBoard(position)) {
-            return false;
-        }
-        ChessPiece piece = board.getPiece(position);
-        return piece != null && piece.getTeamColor() != this.pieceColor;
-    }
-    private boolean inRange(ChessPosition position) {
-        return position.getRow() < 1 || position.getRow() > 8 ||
-                position.getColumn() < 1 || position.getColumn() > 8;
-    }
-    private boolean offBoard(ChessPosition position) {
-        int row = position.getRow();
-        int col = position.getColumn();
-        return row < 1 || row > 8 || col < 1 || col > 8;
+    private void addPromotionMoves(int start, int end, MoveList moves) {
+        moves.add(ChessMove.encode(start, end, PieceType.QUEEN));
+        moves.add(ChessMove.encode(start, end, PieceType.BISHOP));
+        moves.add(ChessMove.encode(start, end, PieceType.KNIGHT));
+        moves.add(ChessMove.encode(start, end, PieceType.ROOK));
     }
 
     @Override
@@ -238,7 +157,7 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(pieceColor, type);
+        return (pieceColor == null || type == null) ? 0 : getIndex() + 1;
     }
 
 }
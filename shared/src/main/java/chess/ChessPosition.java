@@ -1,8 +1,14 @@
 package chess;
 
-import java.util.Objects;
-
 public class ChessPosition {
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            POSITIONS[square] = new ChessPosition(ChessBoard.row(square), ChessBoard.column(square));
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -10,6 +16,23 @@ public class ChessPosition {
         this.row = row;
         this.col = col;
     }
+
+    /**
+     * Returns the shared instance for an on-board position; off-board coordinates
+     * get a fresh instance
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[ChessBoard.index(row, col)];
+    }
+    /**
+     * @return the shared instance for a square index (0-63)
+     */
+    public static ChessPosition of(int square) {
+        return POSITIONS[square];
+    }
     public int getRow() {
         return row;
     }
@@ -27,6 +50,6 @@ public class ChessPosition {
     }
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return 31 * row + col;
     }
 }
@@ -0,0 +1,197 @@
+package chess;
+
+/**
+ * Static evaluation: material plus piece-square tables, in centipawns.
+ * <p>
+ * Piece values and tables follow the widely used "simplified evaluation function":
+ * knights and bishops like the centre, rooks like the seventh rank, pawns are pushed
+ * forward and the king is kept tucked behind its pawns.
+ */
+public final class Evaluation {
+
+    /**
+     * Piece values in centipawns, indexed by PieceType ordinal. The king has no
+     * material value since it can never be traded.
+     */
+    static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+
+    /**
+     * Bonus for a piece standing on a square, indexed by piece (ChessPiece.getIndex)
+     * and square, so black's tables are white's mirrored across the middle of the board
+     */
+    static final int[][] PIECE_SQUARE = new int[12][64];
+
+    /**
+     * What a piece on a square adds to white's score: its value plus its square bonus,
+     * negated for black. ChessBoard sums these as pieces come and go.
+     */
+    static final int[][] SCORES = new int[12][64];
+
+    // Tables are written as seen from white's side, rank 8 first
+    private static final int[][] WHITE_TABLES = {
+            { // king
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20},
+            { // queen
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20},
+            { // bishop
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20},
+            { // knight
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50},
+            { // rook
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0},
+            { // pawn
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0},
+    };
+
+    static {
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                int row = ChessBoard.row(square);
+                int col = ChessBoard.column(square);
+                PIECE_SQUARE[type][square] = WHITE_TABLES[type][(8 - row) * 8 + col - 1];
+                PIECE_SQUARE[6 + type][square] = WHITE_TABLES[type][(row - 1) * 8 + col - 1];
+                SCORES[type][square] = PIECE_VALUES[type] + PIECE_SQUARE[type][square];
+                SCORES[6 + type][square] = -PIECE_VALUES[type] - PIECE_SQUARE[6 + type][square];
+            }
+        }
+    }
+
+    // Capturing pieces in the order a static exchange uses them: cheapest first
+    private static final ChessPiece.PieceType[] EXCHANGE_ORDER = {
+            ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING
+    };
+
+    private Evaluation() {
+    }
+
+    /**
+     * Scores the position for the side to move: positive when it is ahead
+     *
+     * @return the score in centipawns
+     */
+    public static int evaluate(ChessGame game) {
+        int score = evaluate(game.getBoard());
+        return (game.getTeamTurn() == ChessGame.TeamColor.WHITE) ? score : -score;
+    }
+
+    /**
+     * Scores a board from white's point of view. The board keeps the total up to date
+     * as pieces are placed and removed, so this does not look at the pieces.
+     *
+     * @return the score in centipawns, positive when white is ahead
+     */
+    public static int evaluate(ChessBoard board) {
+        return board.getMaterialScore();
+    }
+
+    /**
+     * Static exchange evaluation: the material a capture wins once every piece that
+     * attacks the square has had the chance to recapture, cheapest first, with each side
+     * free to stop capturing when going on would lose. Only pieces bearing on the square
+     * are considered, including ones revealed behind a slider as the pieces in front of
+     * them capture; pins and checks elsewhere on the board are ignored.
+     *
+     * @param move an encoded legal capture (ChessMove.encode)
+     * @param gain scratch space for the swap list, at least 32 entries; passed in so the
+     * search's move ordering does not allocate per capture
+     * @return the net material gain for the side making the capture, in centipawns;
+     * negative when the capture loses material
+     */
+    static int staticExchange(ChessBoard board, int move, int[] gain) {
+        int from = ChessMove.from(move);
+        int to = ChessMove.to(move);
+        ChessPiece mover = board.getPiece(from);
+        ChessPiece target = board.getPiece(to);
+        long occupied = board.getOccupied() ^ (1L << from);
+        gain[0] = 0;
+        if (target != null) {
+            gain[0] = PIECE_VALUES[target.getPieceType().ordinal()];
+        } else if (mover.getPieceType() == ChessPiece.PieceType.PAWN
+                && ChessBoard.column(from) != ChessBoard.column(to)) {
+            // en passant: the captured pawn is beside the destination, not on it
+            gain[0] = PIECE_VALUES[ChessPiece.PieceType.PAWN.ordinal()];
+            occupied ^= 1L << (to + ((mover.getTeamColor() == ChessGame.TeamColor.WHITE) ? -8 : 8));
+        }
+        int onSquare = PIECE_VALUES[mover.getPieceType().ordinal()];
+        ChessPiece.PieceType promotion = ChessMove.promotion(move);
+        if (promotion != null) {
+            onSquare = PIECE_VALUES[promotion.ordinal()];
+            gain[0] += onSquare - PIECE_VALUES[ChessPiece.PieceType.PAWN.ordinal()];
+        }
+
+        ChessGame.TeamColor side = mover.getTeamColor().opponent();
+        int depth = 0;
+        while (depth < gain.length - 1) {
+            long attackers = board.attackersOf(to, side, occupied) & occupied;
+            if (attackers == 0) {
+                break;
+            }
+            ChessPiece.PieceType type = null;
+            long bit = 0;
+            for (ChessPiece.PieceType candidate : EXCHANGE_ORDER) {
+                long pieces = attackers & board.getPieces(side, candidate);
+                if (pieces != 0) {
+                    type = candidate;
+                    bit = pieces & -pieces;
+                    break;
+                }
+            }
+            if (type == ChessPiece.PieceType.KING
+                    && (board.attackersOf(to, side.opponent(), occupied ^ bit) & occupied) != 0) {
+                break;
+            }
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            onSquare = PIECE_VALUES[type.ordinal()];
+            occupied ^= bit;
+            side = side.opponent();
+        }
+        for (; depth > 0; depth--) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+}
@@ -0,0 +1,282 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation (FEN).
+ * <p>
+ * A parser instance walks the text one character at a time with no substrings,
+ * splitting or per-character objects, and stages the piece placement in a reusable
+ * buffer so a malformed record leaves the target board untouched. Reuse one instance
+ * to bulk-load positions; instances are not thread-safe.
+ */
+public class Fen {
+
+    /**
+     * The standard starting position
+     */
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "KQBNRPkqbnrp";
+
+    private final byte[] placement = new byte[64];
+    private CharSequence text;
+    private int pos;
+
+    /**
+     * Loads a FEN record into an existing game, replacing its position, side to move
+     * and clocks. The halfmove clock and fullmove number may be omitted.
+     *
+     * @throws IllegalArgumentException if the record is malformed; the game is unchanged
+     */
+    public void parse(CharSequence fen, ChessGame game) {
+        start(fen);
+        readPlacement();
+        expect(' ');
+        ChessGame.TeamColor turn = readTurn();
+        expect(' ');
+        int castlingRights = readCastling();
+        expect(' ');
+        int enPassantColumn = readEnPassant(turn);
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        if (pos < text.length()) {
+            expect(' ');
+            halfmoveClock = readNumber();
+            if (pos < text.length()) {
+                expect(' ');
+                fullmoveNumber = readNumber();
+                if (fullmoveNumber < 1) {
+                    throw error("fullmove number must be at least 1");
+                }
+            }
+        }
+        if (pos != text.length()) {
+            throw error("unexpected trailing text");
+        }
+
+        ChessBoard board = game.getBoard();
+        applyPlacement(board);
+        game.setBoard(board);
+        game.setTeamTurn(turn);
+        game.setCastlingState(castlingRights, enPassantColumn);
+        game.setClocks(halfmoveClock, fullmoveNumber);
+        game.resetHistory();
+    }
+
+    /**
+     * Loads the piece placement of a FEN record into an existing board. The record may
+     * be the placement field alone or a full FEN, whose remaining fields are ignored.
+     *
+     * @throws IllegalArgumentException if the placement is malformed; the board is unchanged
+     */
+    public void parse(CharSequence fen, ChessBoard board) {
+        start(fen);
+        readPlacement();
+        if (pos < text.length() && text.charAt(pos) != ' ') {
+            throw error("expected end of placement");
+        }
+        applyPlacement(board);
+    }
+
+    /**
+     * @return a new game in the position described by a FEN record
+     */
+    public static ChessGame newGame(CharSequence fen) {
+        ChessGame game = new ChessGame();
+        new Fen().parse(fen, game);
+        return game;
+    }
+
+    /**
+     * @return the FEN record for the game's current position
+     */
+    public static String toFen(ChessGame game) {
+        StringBuilder out = new StringBuilder(90);
+        append(game, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the FEN record for the game's current position. The en passant square is
+     * written only when a pawn can capture on it.
+     */
+    public static void append(ChessGame game, StringBuilder out) {
+        appendPlacement(game.getBoard(), out);
+        boolean white = game.getTeamTurn() == ChessGame.TeamColor.WHITE;
+        out.append(white ? " w " : " b ");
+        int rights = game.getCastlingRights();
+        if (rights == 0) {
+            out.append('-');
+        }
+        for (int flag = 0; flag < 4; flag++) {
+            if ((rights & (1 << flag)) != 0) {
+                out.append("KQkq".charAt(flag));
+            }
+        }
+        out.append(' ');
+        int column = game.getEnPassantColumn();
+        if (column == 0) {
+            out.append('-');
+        } else {
+            out.append((char) ('a' + column - 1)).append(white ? '6' : '3');
+        }
+        out.append(' ').append(game.getHalfmoveClock());
+        out.append(' ').append(game.getFullmoveNumber());
+    }
+
+    /**
+     * Appends the placement field (the first FEN field) for a board
+     */
+    public static void appendPlacement(ChessBoard board, StringBuilder out) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessBoard.index(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(PIECE_LETTERS.charAt(piece.getIndex()));
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                out.append('/');
+            }
+        }
+    }
+
+    private void start(CharSequence fen) {
+        text = fen;
+        pos = 0;
+    }
+
+    private void readPlacement() {
+        int row = 7;
+        int col = 0;
+        while (pos < text.length() && text.charAt(pos) != ' ') {
+            char c = text.charAt(pos);
+            if (c == '/') {
+                if (col != 8 || row == 0) {
+                    throw error("rank does not have 8 squares");
+                }
+                row--;
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                for (int i = 0; i < c - '0'; i++) {
+                    if (col > 7) {
+                        throw error("rank has more than 8 squares");
+                    }
+                    placement[row * 8 + col++] = 0;
+                }
+            } else {
+                int code = PIECE_LETTERS.indexOf(c);
+                if (code < 0) {
+                    throw error("unknown piece '" + c + "'");
+                }
+                if (col > 7) {
+                    throw error("rank has more than 8 squares");
+                }
+                placement[row * 8 + col++] = (byte) (code + 1);
+            }
+            pos++;
+        }
+        if (row != 0 || col != 8) {
+            throw error("placement does not cover 8 ranks of 8 squares");
+        }
+    }
+
+    private void applyPlacement(ChessBoard board) {
+        board.clear();
+        for (int square = 0; square < 64; square++) {
+            if (placement[square] != 0) {
+                board.setPiece(square, ChessPiece.of(placement[square] - 1));
+            }
+        }
+    }
+
+    private ChessGame.TeamColor readTurn() {
+        char c = next();
+        if (c == 'w') {
+            return ChessGame.TeamColor.WHITE;
+        } else if (c == 'b') {
+            return ChessGame.TeamColor.BLACK;
+        }
+        throw error("side to move must be 'w' or 'b'");
+    }
+
+    private int readCastling() {
+        if (peek() == '-') {
+            pos++;
+            return 0;
+        }
+        int seen = 0;
+        while (pos < text.length() && text.charAt(pos) != ' ') {
+            int flag = "KQkq".indexOf(text.charAt(pos));
+            if (flag < 0 || (seen & (1 << flag)) != 0) {
+                throw error("bad castling field");
+            }
+            seen |= 1 << flag;
+            pos++;
+        }
+        if (seen == 0) {
+            throw error("empty castling field");
+        }
+        return seen;
+    }
+
+    private int readEnPassant(ChessGame.TeamColor turn) {
+        char file = next();
+        if (file == '-') {
+            return 0;
+        }
+        char rank = next();
+        char expected = (turn == ChessGame.TeamColor.WHITE) ? '6' : '3';
+        if (file < 'a' || file > 'h' || rank != expected) {
+            throw error("bad en passant square");
+        }
+        return file - 'a' + 1;
+    }
+
+    private int readNumber() {
+        int start = pos;
+        int value = 0;
+        while (pos < text.length() && text.charAt(pos) >= '0' && text.charAt(pos) <= '9') {
+            value = value * 10 + (text.charAt(pos++) - '0');
+            if (value > 100_000) {
+                throw error("number out of range");
+            }
+        }
+        if (pos == start) {
+            throw error("expected a number");
+        }
+        return value;
+    }
+
+    private void expect(char c) {
+        if (next() != c) {
+            throw error("expected '" + c + "'");
+        }
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private char peek() {
+        if (pos >= text.length()) {
+            throw error("unexpected end of record");
+        }
+        return text.charAt(pos);
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("bad FEN at index " + pos + ": " + message + " in \"" + text + "\"");
+    }
+}
@@ -0,0 +1,53 @@
+package chess;
+
+/**
+ * A reusable buffer of moves encoded with {@link ChessMove#encode(int, int, ChessPiece.PieceType)}.
+ * <p>
+ * Move generation appends into a caller-owned list instead of allocating a collection
+ * and a ChessMove per result; clear() lets the same list be filled again.
+ */
+public class MoveList {
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(256);
+    }
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            int[] grown = new int[moves.length * 2];
+            System.arraycopy(moves, 0, grown, 0, size);
+            moves = grown;
+        }
+        moves[size++] = move;
+    }
+    public int get(int i) {
+        return moves[i];
+    }
+    public int size() {
+        return size;
+    }
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    public void clear() {
+        size = 0;
+    }
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+    }
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,19 @@
+package chess;
+
+/**
+ * Everything ChessGame needs to take back a move made with doMove: the encoded move,
+ * the piece that moved (before any promotion), whatever it captured and where (which
+ * differs from the destination for en passant), and the turn, halfmove clock, castling
+ * rights and en passant column before the move. Records are pooled on the game's undo
+ * stack and reused.
+ */
+class MoveUndo {
+    int move;
+    ChessPiece moved;
+    ChessPiece captured;
+    int capturedSquare;
+    ChessGame.TeamColor previousTurn;
+    int previousHalfmoveClock;
+    int previousCastlingRights;
+    int previousEnPassantColumn;
+}
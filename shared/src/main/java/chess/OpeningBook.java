@@ -0,0 +1,133 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only opening book: known continuations and their weights, keyed by
+ * ChessGame.getPositionKey.
+ * <p>
+ * The file is a 16-byte header followed by 16-byte entries sorted by key (signed long
+ * order), each holding the key, the encoded move and its weight, all big-endian:
+ * <pre>
+ *     header: "CSBK"  int version  long entry count
+ *     entry:  long key  int move  int weight
+ * </pre>
+ * The file is memory-mapped and binary-searched in place, so opening a book costs no
+ * heap and a lookup touches only the few pages the search visits. Lookups use absolute
+ * reads and are safe from any number of threads. Build book files with
+ * OpeningBookBuilder.
+ */
+public class OpeningBook implements Closeable {
+    static final int MAGIC = 0x4353424B;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 16;
+
+    /**
+     * A book move and how strongly the book recommends it, relative to the other moves
+     * from the same position
+     */
+    public record Entry(ChessMove move, int weight) {
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final int size;
+
+    private OpeningBook(FileChannel channel, MappedByteBuffer data, int size) {
+        this.channel = channel;
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * Maps a book file
+     *
+     * @throws IOException if the file can't be read or is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException(path + " is not an opening book: bad size " + fileSize);
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+                throw new IOException(path + " is not a version " + VERSION + " opening book");
+            }
+            long count = data.getLong(8);
+            if (count < 0 || HEADER_SIZE + count * ENTRY_SIZE != fileSize) {
+                throw new IOException(path + " is truncated: header lists " + count + " entries");
+            }
+            return new OpeningBook(channel, data, (int) count);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of entries in the book
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the book moves for a position. Moves are returned as stored, so callers
+     * should check them against the legal moves (ChessGame.getBookMoves does).
+     *
+     * @param key the position key, from ChessGame.getPositionKey
+     * @return the entries for the position, strongest first; empty if it's not in the book
+     */
+    public List<Entry> lookup(long key) {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = lowerBound(key); i < size && keyAt(i) == key; i++) {
+            int offset = HEADER_SIZE + i * ENTRY_SIZE;
+            entries.add(new Entry(ChessMove.decode(data.getInt(offset + 8)), data.getInt(offset + 12)));
+        }
+        return entries;
+    }
+
+    /**
+     * @return True if the book has any moves for the position
+     */
+    public boolean contains(long key) {
+        int i = lowerBound(key);
+        return i < size && keyAt(i) == key;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * @return the index of the first entry whose key is not less than key
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyAt(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int i) {
+        return data.getLong(HEADER_SIZE + i * ENTRY_SIZE);
+    }
+}
@@ -0,0 +1,89 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects position/move pairs and writes them as an OpeningBook file. Adding the same
+ * move from the same position again adds to its weight, so a book built from a game
+ * archive weights each move by how often it was played.
+ */
+public class OpeningBookBuilder {
+    private final Map<Long, Map<Integer, Integer>> entries = new HashMap<>();
+
+    /**
+     * Adds weight to a move from the game's current position
+     *
+     * @throws IllegalArgumentException if the move is not legal in the position
+     */
+    public void add(ChessGame game, ChessMove move, int weight) {
+        int encoded = move.encode();
+        if (!game.legalMoves(game.getTeamTurn()).contains(encoded)) {
+            throw new IllegalArgumentException("illegal book move " + move);
+        }
+        entries.computeIfAbsent(game.getPositionKey(), key -> new LinkedHashMap<>())
+                .merge(encoded, weight, Integer::sum);
+    }
+
+    /**
+     * Adds the first moves of a game, each with weight 1
+     *
+     * @param maxPlies how many moves (counting both sides) to take from the game
+     */
+    public void addGame(PgnGame pgn, int maxPlies) {
+        ChessGame game = pgn.startPosition();
+        List<ChessMove> moves = pgn.getMoves();
+        for (int i = 0; i < Math.min(maxPlies, moves.size()); i++) {
+            add(game, moves.get(i), 1);
+            game.doMove(moves.get(i).encode());
+        }
+    }
+
+    /**
+     * Writes the collected entries as a book file, replacing any existing file
+     */
+    public void write(Path path) throws IOException {
+        long[] keys = new long[entries.size()];
+        int k = 0;
+        long count = 0;
+        for (Map.Entry<Long, Map<Integer, Integer>> position : entries.entrySet()) {
+            keys[k++] = position.getKey();
+            count += position.getValue().size();
+        }
+        Arrays.sort(keys);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * OpeningBook.ENTRY_SIZE);
+            buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putLong(count);
+            for (long key : keys) {
+                List<Map.Entry<Integer, Integer>> moves = new ArrayList<>(entries.get(key).entrySet());
+                moves.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed());
+                for (Map.Entry<Integer, Integer> move : moves) {
+                    if (buffer.remaining() < OpeningBook.ENTRY_SIZE) {
+                        drain(buffer, channel);
+                    }
+                    buffer.putLong(key).putInt(move.getKey()).putInt(move.getValue());
+                }
+            }
+            drain(buffer, channel);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
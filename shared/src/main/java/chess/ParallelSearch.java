@@ -0,0 +1,115 @@
+package chess;
+
+/**
+ * Searches one position on several threads at once ("lazy SMP"). Every thread runs a
+ * Search on its own copy of the game, and all of them share one TranspositionTable.
+ * The helpers do not split the tree between them; half of them run a ply ahead of the
+ * main search and each tries the root moves in a different order, so they fill the
+ * table with results for parts of the tree the main search has not reached yet, which
+ * it then finds and cuts off on. The main search reaches a given depth sooner the more
+ * threads run beside it.
+ * <p>
+ * The main search decides when to stop and its result is the one returned; the helpers
+ * are stopped as soon as it finishes. An instance keeps its searches and table between
+ * calls; it is not thread-safe, except for stop().
+ */
+public class ParallelSearch {
+    private final TranspositionTable table;
+    private final Search main;
+    private final Search[] helpers;
+
+    /**
+     * Creates a parallel search with a 16 MB table per thread
+     *
+     * @param threads total threads to search on, including the caller's
+     */
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(16 * Math.max(threads, 1)));
+    }
+
+    /**
+     * @param threads total threads to search on, including the caller's
+     * @param table the table all threads share
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("need at least 1 thread, was " + threads);
+        }
+        this.table = table;
+        main = new Search(table, 0);
+        helpers = new Search[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Search(table, i + 1);
+        }
+    }
+
+    /**
+     * @return the number of threads a search runs on
+     */
+    public int threads() {
+        return helpers.length + 1;
+    }
+
+    /**
+     * Searches the game's current position on the calling thread plus the helpers
+     *
+     * @param game the game to search; its position is restored before returning
+     * @param limits when to stop; the depth and node budget apply to the main search only
+     * @return the main search's result, with the nodes of all threads counted
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        table.newSearch();
+        // helpers keep deepening until the main search is done with them
+        SearchLimits helperLimits = new SearchLimits(SearchLimits.MAX_DEPTH, Long.MAX_VALUE, limits.millis());
+        SearchResult[] helperResults = new SearchResult[helpers.length];
+        Thread[] threads = new Thread[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            int index = i;
+            ChessGame helperGame = game.copy();
+            threads[i] = new Thread(() -> helperResults[index] = helpers[index].searchShared(helperGame, helperLimits),
+                    "search-helper-" + (i + 1));
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+
+        SearchResult result;
+        try {
+            result = main.searchShared(game, limits);
+        } finally {
+            // the helpers are stopped even if the main search throws
+            for (int i = 0; i < helpers.length; i++) {
+                helpers[i].stop();
+                try {
+                    threads[i].join();
+                    // a helper that ended on its own (a mate found) never took the stop
+                    helpers[i].clearStop();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        long nodes = result.nodes();
+        for (SearchResult helperResult : helperResults) {
+            if (helperResult != null) {
+                nodes += helperResult.nodes();
+            }
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes, result.millis());
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible and return its best move so
+     * far. Safe to call from another thread.
+     */
+    public void stop() {
+        main.stop();
+    }
+
+    /**
+     * @return the table the threads share
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+}
@@ -0,0 +1,208 @@
+package chess;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree (perft) to check move generation
+ * against published reference counts and to measure its throughput.
+ * <p>
+ * Run with {@code mvn -pl shared compile exec:java}; pass a maximum depth as the
+ * first argument ({@code -Dexec.args=3}) to skip the deeper reference counts, and a
+ * thread count as the second ({@code -Dexec.args="6 8"}) to walk the tree in parallel.
+ */
+public class Perft {
+
+    /**
+     * A reference position with its known node counts, indexed by depth - 1
+     */
+    private record Reference(String name, String fen, long... counts) {
+    }
+
+    private static final Reference[] REFERENCES = {
+            new Reference("start position", Fen.START, 20, 400, 8902, 197281, 4865609),
+            new Reference("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2039, 97862, 4085603),
+            new Reference("position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2812, 43238, 674624),
+            new Reference("position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9467, 422333),
+            new Reference("position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1486, 62379, 2103487),
+            new Reference("position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2079, 89890, 3894594),
+    };
+
+    /**
+     * Subtrees this shallow are counted on the current worker rather than split further
+     */
+    private static final int SEQUENTIAL_DEPTH = 3;
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree below the game's current position
+     *
+     * @param game the game to search; its position is restored before returning
+     * @param depth number of plies to expand
+     * @return number of move sequences of exactly that length
+     * @throws IllegalArgumentException if depth is negative
+     */
+    public static long perft(ChessGame game, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("perft depth must not be negative, was " + depth);
+        }
+        MoveList[] buffers = new MoveList[Math.max(depth, 1)];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new MoveList();
+        }
+        return perft(game, depth, buffers);
+    }
+
+    private static long perft(ChessGame game, int depth, MoveList[] buffers) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = buffers[depth - 1];
+        moves.clear();
+        game.generateLegalMoves(game.getTeamTurn(), moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += perft(game, depth - 1, buffers);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Splits a perft count by root move, the usual way to find which move a generator
+     * gets wrong when a total doesn't match
+     *
+     * @return node count below each legal root move, in generation order
+     * @throws IllegalArgumentException if depth is less than 1
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("divide depth must be at least 1, was " + depth);
+        }
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(game.getTeamTurn(), moves);
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            counts.put(ChessMove.decode(moves.get(i)), perft(game, depth - 1));
+            game.undoMove();
+        }
+        return counts;
+    }
+
+    /**
+     * Counts leaf nodes like perft, spreading the tree across a fork-join pool
+     */
+    public static long perftParallel(ChessGame game, int depth, ForkJoinPool pool) {
+        if (depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for (long count : divideParallel(game, depth, pool).values()) {
+            nodes += count;
+        }
+        return nodes;
+    }
+
+    /**
+     * Splits a perft count by root move like divide, counting the subtrees in parallel.
+     * Each root move gets its own copy of the game, and subtrees deeper than
+     * SEQUENTIAL_DEPTH are split again into per-move tasks, so the work stays balanced
+     * when a few root moves own most of the tree.
+     *
+     * @return node count below each legal root move, in generation order
+     * @throws IllegalArgumentException if depth is less than 1
+     */
+    public static Map<ChessMove, Long> divideParallel(ChessGame game, int depth, ForkJoinPool pool) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("divide depth must be at least 1, was " + depth);
+        }
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(game.getTeamTurn(), moves);
+        List<PerftTask> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            PerftTask task = new PerftTask(game, moves.get(i), depth - 1);
+            pool.execute(task);
+            tasks.add(task);
+        }
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            counts.put(ChessMove.decode(moves.get(i)), tasks.get(i).join());
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the subtree below one move, on a private copy of the game
+     */
+    private static class PerftTask extends RecursiveTask<Long> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // tasks are never serialized; the field is transient only because ChessGame isn't Serializable
+        private final transient ChessGame game;
+        private final int depth;
+
+        PerftTask(ChessGame parent, int move, int depth) {
+            this.game = parent.copy();
+            this.game.doMove(move);
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SEQUENTIAL_DEPTH) {
+                return perft(game, depth);
+            }
+            MoveList moves = new MoveList();
+            game.generateLegalMoves(game.getTeamTurn(), moves);
+            List<PerftTask> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                children.add(new PerftTask(game, moves.get(i), depth - 1));
+            }
+            long nodes = 0;
+            for (PerftTask child : invokeAll(children)) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+
+    public static void main(String[] args) {
+        int maxDepth = (args.length > 0) ? Integer.parseInt(args[0]) : Integer.MAX_VALUE;
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : 1;
+        ForkJoinPool pool = (threads > 1) ? new ForkJoinPool(threads) : null;
+        boolean failed = false;
+        for (Reference reference : REFERENCES) {
+            for (int depth = 1; depth <= Math.min(maxDepth, reference.counts().length); depth++) {
+                ChessGame game = Fen.newGame(reference.fen());
+                long start = System.nanoTime();
+                long nodes = (pool != null) ? perftParallel(game, depth, pool) : perft(game, depth);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                long expected = reference.counts()[depth - 1];
+                failed |= nodes != expected;
+                System.out.printf("%-16s depth %d  nodes %,12d  expected %,12d  %s  %8.3f s  %,12.0f nodes/s%n",
+                        reference.name(), depth, nodes, expected, nodes == expected ? "ok  " : "FAIL",
+                        seconds, nodes / Math.max(seconds, 1e-9));
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game from a PGN archive: its tag pairs, in file order, and its main line of
+ * moves. Comments, annotation glyphs and variations are not kept.
+ */
+public class PgnGame {
+    private final Map<String, String> tags;
+    private final List<ChessMove> moves;
+
+    /**
+     * @param tags tag pairs, e.g. "White" and "Result"; a "FEN" tag gives the start position
+     * @param moves the moves played from the start position
+     */
+    public PgnGame(Map<String, String> tags, List<ChessMove> moves) {
+        this.tags = new LinkedHashMap<>(tags);
+        this.moves = new ArrayList<>(moves);
+    }
+
+    /**
+     * Records moves played from a game's position, adding the "SetUp" and "FEN" tags
+     * when that is not the standard starting position
+     *
+     * @param start the position the moves are played from; it is not modified
+     * @param moves the moves played
+     * @param result "1-0", "0-1", "1/2-1/2" or "*" for an unfinished game
+     */
+    public PgnGame(ChessGame start, List<ChessMove> moves, String result) {
+        this(Collections.emptyMap(), moves);
+        String fen = Fen.toFen(start);
+        if (!fen.equals(Fen.toFen(new ChessGame()))) {
+            tags.put("SetUp", "1");
+            tags.put("FEN", fen);
+        }
+        tags.put("Result", result);
+    }
+
+    /**
+     * @return the value of a tag, or null if the game doesn't have it
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * @return every tag pair, in file order
+     */
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    /**
+     * @return the moves of the main line
+     */
+    public List<ChessMove> getMoves() {
+        return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * @return the game result: "1-0", "0-1", "1/2-1/2" or "*"
+     */
+    public String getResult() {
+        return tags.getOrDefault("Result", "*");
+    }
+
+    /**
+     * @return a new game in the position the moves start from
+     */
+    public ChessGame startPosition() {
+        String fen = tags.get("FEN");
+        return (fen == null) ? new ChessGame() : Fen.newGame(fen);
+    }
+
+    /**
+     * Plays every move through ChessGame.makeMove, checking each one
+     *
+     * @return a new game in the final position
+     * @throws InvalidMoveException if a move is not legal where it is played
+     */
+    public ChessGame replay() throws InvalidMoveException {
+        ChessGame game = startPosition();
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+        }
+        return game;
+    }
+}
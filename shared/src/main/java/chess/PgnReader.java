@@ -0,0 +1,368 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads games one at a time from a PGN archive.
+ * <p>
+ * The reader pulls characters through a fixed-size buffer and keeps only the game being
+ * read, so memory use does not grow with the size of the archive. Each move's SAN is
+ * resolved against the legal moves of a working game that replays the main line as it
+ * is read; comments, annotation glyphs and variations are skipped without being stored.
+ * Instances are not thread-safe.
+ */
+public class PgnReader implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_TOKEN = 255;
+    private static final int MAX_TAG_VALUE = 4096;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int length;
+    private int pos;
+    private int line = 1;
+    private boolean lineStart = true;
+
+    private final StringBuilder token = new StringBuilder(MAX_TOKEN);
+    private final Fen fen = new Fen();
+    private final ChessGame game = new ChessGame();
+    private final MoveList scratch = new MoveList();
+
+    public PgnReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads an archive encoded as UTF-8, which also covers plain ASCII files
+     */
+    public PgnReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the next game. A game with no result at the end of the archive, or directly
+     * followed by another tag section, is returned with result "*".
+     *
+     * @return the game, or null at the end of the archive
+     * @throws IllegalArgumentException if the game is malformed or has an illegal or
+     * ambiguous move; the rest of that game is skipped, so the next call reads the
+     * following game
+     * @throws IOException if the underlying reader fails
+     */
+    public PgnGame next() throws IOException {
+        skipFiller();
+        if (peek() < 0) {
+            return null;
+        }
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<ChessMove> moves = new ArrayList<>();
+        boolean inMovetext = false;
+        try {
+            while (peek() == '[') {
+                readTag(tags);
+                skipFiller();
+            }
+            inMovetext = true;
+            String start = tags.get("FEN");
+            try {
+                fen.parse(start != null ? start : Fen.START, game);
+            } catch (IllegalArgumentException e) {
+                throw error("bad FEN tag: " + e.getMessage());
+            }
+            tags.putIfAbsent("Result", readMovetext(moves));
+        } catch (IllegalArgumentException e) {
+            skipGame(inMovetext);
+            throw e;
+        }
+        return new PgnGame(tags, moves);
+    }
+
+    /**
+     * Streams the remaining games lazily. I/O failures surface as UncheckedIOException;
+     * use next() directly to skip malformed games and carry on.
+     */
+    public Stream<PgnGame> stream() {
+        Iterator<PgnGame> games = new Iterator<>() {
+            private PgnGame pending;
+
+            @Override
+            public boolean hasNext() {
+                if (pending == null) {
+                    try {
+                        pending = PgnReader.this.next();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return pending != null;
+            }
+
+            @Override
+            public PgnGame next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                PgnGame game = pending;
+                pending = null;
+                return game;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(games,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readTag(Map<String, String> tags) throws IOException {
+        read();
+        skipBlanks();
+        token.setLength(0);
+        for (int c = peek(); c >= 0 && (Character.isLetterOrDigit(c) || c == '_'); c = peek()) {
+            appendToken((char) read(), MAX_TOKEN);
+        }
+        if (token.length() == 0) {
+            throw error("expected a tag name");
+        }
+        String name = token.toString();
+        skipBlanks();
+        if (read() != '"') {
+            throw error("expected '\"' after tag " + name);
+        }
+        token.setLength(0);
+        for (int c = read(); c != '"'; c = read()) {
+            if (c < 0 || c == '\n') {
+                throw error("unterminated value for tag " + name);
+            }
+            if (c == '\\') {
+                c = read();
+                if (c < 0) {
+                    throw error("unterminated value for tag " + name);
+                }
+            }
+            appendToken((char) c, MAX_TAG_VALUE);
+        }
+        skipBlanks();
+        if (read() != ']') {
+            throw error("expected ']' after tag " + name);
+        }
+        tags.put(name, token.toString());
+    }
+
+    /**
+     * Reads movetext up to and including the game termination marker, playing each move
+     * on the working game
+     *
+     * @return the result from the termination marker
+     */
+    private String readMovetext(List<ChessMove> moves) throws IOException {
+        while (true) {
+            skipFiller();
+            int c = peek();
+            if (c < 0 || c == '[') {
+                return "*";
+            } else if (c == '(') {
+                skipVariation();
+                continue;
+            } else if (c == ')') {
+                throw error("unbalanced ')'");
+            } else if (c == '}' || c == ']' || c == '"') {
+                throw error("unexpected '" + (char) c + "'");
+            } else if (c == '$') {
+                read();
+                while (peek() >= '0' && peek() <= '9') {
+                    read();
+                }
+                continue;
+            }
+            readSymbol();
+            String result = result();
+            if (result != null) {
+                return result;
+            }
+            int start = 0;
+            while (start < token.length() && token.charAt(start) >= '0' && token.charAt(start) <= '9') {
+                start++;
+            }
+            if (start < token.length() && token.charAt(start) != '.') {
+                start = 0;
+            }
+            while (start < token.length() && token.charAt(start) == '.') {
+                start++;
+            }
+            if (start == token.length()) {
+                continue;
+            }
+            int move = San.resolve(game, token, start, token.length(), scratch);
+            if (move == San.NO_MOVE) {
+                throw error("\"" + token.substring(start) + "\" is not a legal move");
+            } else if (move == San.AMBIGUOUS) {
+                throw error("\"" + token.substring(start) + "\" is ambiguous");
+            }
+            game.doMove(move);
+            moves.add(ChessMove.decode(move));
+        }
+    }
+
+    private String result() {
+        if (contentEquals("1-0")) {
+            return "1-0";
+        } else if (contentEquals("0-1")) {
+            return "0-1";
+        } else if (contentEquals("1/2-1/2")) {
+            return "1/2-1/2";
+        } else if (contentEquals("*")) {
+            return "*";
+        }
+        return null;
+    }
+
+    private boolean contentEquals(String s) {
+        if (token.length() != s.length()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (token.charAt(i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readSymbol() throws IOException {
+        token.setLength(0);
+        for (int c = peek(); c >= 0 && !Character.isWhitespace(c) && "{}()[]$;\"".indexOf(c) < 0; c = peek()) {
+            appendToken((char) read(), MAX_TOKEN);
+        }
+    }
+
+    private void appendToken(char c, int limit) {
+        if (token.length() == limit) {
+            throw error("token longer than " + limit + " characters");
+        }
+        token.append(c);
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 0;
+        do {
+            int c = read();
+            if (c < 0) {
+                throw error("unterminated variation");
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipComment();
+            } else if (c == ';') {
+                skipLine();
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Skips whitespace, comments and escape lines
+     */
+    private void skipFiller() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c == '%' && lineStart) {
+                skipLine();
+            } else if (c == ';') {
+                skipLine();
+            } else if (c == '{') {
+                read();
+                skipComment();
+            } else if (c >= 0 && Character.isWhitespace(c)) {
+                read();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipComment() throws IOException {
+        for (int c = read(); c != '}'; c = read()) {
+            if (c < 0) {
+                throw error("unterminated comment");
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c >= 0 && c != '\n');
+    }
+
+    private void skipBlanks() throws IOException {
+        while (peek() == ' ' || peek() == '\t') {
+            read();
+        }
+    }
+
+    /**
+     * Skips to the start of the next game after an error: past any remaining tag lines,
+     * then through the movetext until a line that opens a new tag section
+     */
+    private void skipGame(boolean inMovetext) throws IOException {
+        for (int c = peek(); c >= 0; c = peek()) {
+            if (lineStart && c == '[') {
+                if (inMovetext) {
+                    return;
+                }
+            } else if (lineStart && !Character.isWhitespace(c)) {
+                inMovetext = true;
+            }
+            read();
+        }
+    }
+
+    private int peek() throws IOException {
+        if (pos == length) {
+            length = in.read(buffer, 0, BUFFER_SIZE);
+            pos = 0;
+            if (length <= 0) {
+                length = 0;
+                return -1;
+            }
+        }
+        return buffer[pos];
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            pos++;
+            lineStart = c == '\n';
+            if (lineStart) {
+                line++;
+            }
+        }
+        return c;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("bad PGN at line " + line + ": " + message);
+    }
+}
@@ -0,0 +1,117 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes games in PGN export format: the seven standard tags first, then any others,
+ * and movetext in SAN wrapped to 79 columns. Games are written as they are passed in,
+ * so an archive of any size can be produced without holding it in memory.
+ * Instances are not thread-safe.
+ */
+public class PgnWriter implements Closeable, Flushable {
+    private static final int LINE_WIDTH = 79;
+    private static final List<String> SEVEN_TAGS = List.of("Event", "Site", "Date", "Round", "White", "Black", "Result");
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(LINE_WIDTH + 1);
+    private final StringBuilder word = new StringBuilder(16);
+    private final MoveList scratch = new MoveList();
+
+    public PgnWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes one game, followed by a blank line
+     *
+     * @throws IllegalArgumentException if a move is not legal where it is played
+     * @throws IOException if the underlying writer fails
+     */
+    public void write(PgnGame pgn) throws IOException {
+        Map<String, String> tags = pgn.getTags();
+        for (String name : SEVEN_TAGS) {
+            String value = tags.get(name);
+            if (value == null) {
+                value = name.equals("Date") ? "????.??.??" : name.equals("Result") ? "*" : "?";
+            }
+            writeTag(name, value);
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (!SEVEN_TAGS.contains(tag.getKey())) {
+                writeTag(tag.getKey(), tag.getValue());
+            }
+        }
+        out.write('\n');
+
+        ChessGame game = pgn.startPosition();
+        boolean first = true;
+        for (ChessMove move : pgn.getMoves()) {
+            boolean white = game.getTeamTurn() == ChessGame.TeamColor.WHITE;
+            if (white || first) {
+                word.setLength(0);
+                word.append(game.getFullmoveNumber()).append(white ? "." : "...");
+                writeWord();
+            }
+            first = false;
+            int encoded = move.encode();
+            word.setLength(0);
+            San.append(game, encoded, word, scratch);
+            writeWord();
+            game.doMove(encoded);
+        }
+        word.setLength(0);
+        word.append(pgn.getResult());
+        writeWord();
+        out.append(line).append("\n\n");
+        line.setLength(0);
+    }
+
+    /**
+     * Writes the moves played so far in a game, from the start of its history
+     *
+     * @param result "1-0", "0-1", "1/2-1/2" or "*" for an unfinished game
+     * @throws IOException if the underlying writer fails
+     */
+    public void write(ChessGame game, String result) throws IOException {
+        List<ChessMove> moves = game.getMoveHistory().subList(0, game.getHistoryIndex());
+        write(new PgnGame(game.getStartPosition(), moves, result));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        out.append('[').append(name).append(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+            }
+            out.write(c);
+        }
+        out.append("\"]\n");
+    }
+
+    private void writeWord() throws IOException {
+        if (line.length() > 0 && line.length() + 1 + word.length() > LINE_WIDTH) {
+            out.append(line).append('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0) {
+            line.append(' ');
+        }
+        line.append(word);
+    }
+}
@@ -0,0 +1,80 @@
+package chess;
+
+/**
+ * A fixed-size ring of the position keys reached in a game, newest last, used to detect
+ * repeated positions.
+ * <p>
+ * A position can only repeat one reached since the last capture or pawn move, so only
+ * that stretch is scanned. The ring keeps the newest 128 keys; a stretch can run longer,
+ * since the fifty-move rule only lets a player claim a draw and play may go on, and then
+ * its oldest keys are overwritten. The scan never reaches below the oldest surviving
+ * entry (the floor), so in such a game a repetition whose earlier occurrences were
+ * overwritten is undercounted rather than matched against a wrong key.
+ * <p>
+ * The repetition count of the newest entry is computed on first query and cached in its
+ * slot, so repeated queries are O(1). If a query's key is not the newest entry (the
+ * board was replaced or edited) or the game was taken back below the floor, the ring no
+ * longer describes the game and repetitions restarts it from the current position.
+ */
+class PositionHistory {
+    private static final int CAPACITY = 128;
+    private static final int MASK = CAPACITY - 1;
+
+    private final long[] keys = new long[CAPACITY];
+    private final int[] repetitions = new int[CAPACITY];
+    private int size;
+    private int floor;
+
+    void reset(long key) {
+        size = 0;
+        floor = 0;
+        push(key);
+    }
+    void push(long key) {
+        keys[size & MASK] = key;
+        repetitions[size & MASK] = 0;
+        size++;
+        floor = Math.max(floor, size - CAPACITY);
+    }
+    void pop() {
+        size--;
+    }
+    void copyFrom(PositionHistory other) {
+        System.arraycopy(other.keys, 0, keys, 0, CAPACITY);
+        System.arraycopy(other.repetitions, 0, repetitions, 0, CAPACITY);
+        size = other.size;
+        floor = other.floor;
+    }
+
+    /**
+     * Counts how many times the current position has occurred, itself included
+     *
+     * @param key key of the current position; if it does not match the newest entry the
+     * history is out of date (the board was replaced or edited) and restarts from it
+     * @param lookback plies since the last capture or pawn move
+     * @return number of occurrences of the current position
+     */
+    int repetitions(long key, int lookback) {
+        int top = (size - 1) & MASK;
+        if (size <= floor || keys[top] != key) {
+            reset(key);
+            top = 0;
+        }
+        if (repetitions[top] == 0) {
+            int limit = Math.min(lookback, size - 1 - floor);
+            int count = 1;
+            for (int back = 2; back <= limit; back += 2) {
+                int slot = (size - 1 - back) & MASK;
+                if (keys[slot] == key) {
+                    if (repetitions[slot] != 0) {
+                        count += repetitions[slot];
+                        break;
+                    }
+                    count++;
+                }
+            }
+            repetitions[top] = count;
+        }
+        return repetitions[top];
+    }
+}
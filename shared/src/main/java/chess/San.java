@@ -0,0 +1,236 @@
+package chess;
+
+/**
+ * Converts between moves and Standard Algebraic Notation (SAN), the move text used by
+ * PGN, e.g. "e4", "Nbd2", "exd5", "e8=Q+" or "O-O".
+ * <p>
+ * Reading is lenient the way real archives need it to be: check and mate marks,
+ * annotation glyphs ("!", "?!") and long-form captures are accepted and ignored, and
+ * the "=" before a promotion piece is optional. Writing produces the canonical form
+ * with the minimum disambiguation.
+ */
+public final class San {
+    private static final String PIECE_LETTERS = "KQBNRP";
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    /**
+     * Returned by resolve when no legal move matches the text
+     */
+    static final int NO_MOVE = -1;
+    /**
+     * Returned by resolve when more than one legal move matches the text
+     */
+    static final int AMBIGUOUS = -2;
+
+    private San() {
+    }
+
+    /**
+     * Finds the legal move for the side to move that SAN text describes
+     *
+     * @param game the game whose current position the move is played in
+     * @param san the move text
+     * @return the move
+     * @throws IllegalArgumentException if the text names no legal move, or more than one
+     */
+    public static ChessMove parse(ChessGame game, CharSequence san) {
+        int move = resolve(game, san, 0, san.length(), new MoveList());
+        if (move == NO_MOVE) {
+            throw new IllegalArgumentException("\"" + san + "\" is not a legal move");
+        } else if (move == AMBIGUOUS) {
+            throw new IllegalArgumentException("\"" + san + "\" is ambiguous");
+        }
+        return ChessMove.decode(move);
+    }
+
+    /**
+     * Writes a legal move in SAN
+     *
+     * @param game the game whose current position the move is played in
+     * @param move the move
+     * @return the move text
+     * @throws IllegalArgumentException if the move is not legal in the position
+     */
+    public static String toSan(ChessGame game, ChessMove move) {
+        StringBuilder out = new StringBuilder(8);
+        append(game, move.encode(), out, new MoveList());
+        return out.toString();
+    }
+
+    /**
+     * Resolves the SAN text in chars [start, end) against the legal moves of the side to
+     * move, without allocating
+     *
+     * @param scratch buffer for the legal moves; its contents are replaced
+     * @return the encoded move, or NO_MOVE or AMBIGUOUS
+     */
+    static int resolve(ChessGame game, CharSequence text, int start, int end, MoveList scratch) {
+        while (end > start && "+#!?".indexOf(text.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        ChessBoard board = game.getBoard();
+        scratch.clear();
+        game.generateLegalMoves(game.getTeamTurn(), scratch);
+
+        int castle = castleDirection(text, start, end);
+        if (castle != 0) {
+            int king = board.getKingSquare(game.getTeamTurn());
+            int move = (king < 0) ? NO_MOVE : ChessMove.encode(king, king + 2 * castle, null);
+            return scratch.contains(move) ? move : NO_MOVE;
+        }
+
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (start < end && text.charAt(start) != 'P' && PIECE_LETTERS.indexOf(text.charAt(start)) >= 0) {
+            type = pieceType(text.charAt(start++));
+        } else if (start < end && text.charAt(start) == 'P') {
+            start++;
+        }
+        ChessPiece.PieceType promotion = null;
+        if (type == ChessPiece.PieceType.PAWN && end - start >= 3 && isPromotionLetter(text.charAt(end - 1))) {
+            promotion = pieceType(text.charAt(end - 1));
+            end -= (text.charAt(end - 2) == '=') ? 2 : 1;
+        }
+        if (end - start < 2) {
+            return NO_MOVE;
+        }
+        int to = square(text.charAt(end - 2), text.charAt(end - 1));
+        if (to < 0) {
+            return NO_MOVE;
+        }
+        end -= 2;
+
+        int fromColumn = 0;
+        int fromRow = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromColumn = c - 'a' + 1;
+            } else if (c >= '1' && c <= '8') {
+                fromRow = c - '0';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return NO_MOVE;
+            }
+        }
+
+        int found = NO_MOVE;
+        for (int i = 0; i < scratch.size(); i++) {
+            int move = scratch.get(i);
+            int from = ChessMove.from(move);
+            if (ChessMove.to(move) != to || ChessMove.promotion(move) != promotion
+                    || board.getPiece(from).getPieceType() != type
+                    || (fromColumn != 0 && ChessBoard.column(from) != fromColumn)
+                    || (fromRow != 0 && ChessBoard.row(from) != fromRow)) {
+                continue;
+            }
+            if (found != NO_MOVE) {
+                return AMBIGUOUS;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    /**
+     * Appends the SAN text for an encoded move, including the check or mate mark
+     *
+     * @param scratch buffer for the legal moves; its contents are replaced
+     * @throws IllegalArgumentException if the move is not legal in the position
+     */
+    static void append(ChessGame game, int move, StringBuilder out, MoveList scratch) {
+        ChessBoard board = game.getBoard();
+        scratch.clear();
+        game.generateLegalMoves(game.getTeamTurn(), scratch);
+        if (!scratch.contains(move)) {
+            throw new IllegalArgumentException("illegal move " + ChessMove.decode(move));
+        }
+        int from = ChessMove.from(move);
+        int to = ChessMove.to(move);
+        ChessPiece.PieceType type = board.getPiece(from).getPieceType();
+        boolean capture = board.getPiece(to) != null;
+
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            out.append(to > from ? "O-O" : "O-O-O");
+        } else if (type == ChessPiece.PieceType.PAWN) {
+            if (capture || ChessBoard.column(from) != ChessBoard.column(to)) {
+                out.append(file(from)).append('x');
+            }
+            appendSquare(to, out);
+            if (ChessMove.promotion(move) != null) {
+                out.append('=').append(PIECE_LETTERS.charAt(ChessMove.promotion(move).ordinal()));
+            }
+        } else {
+            out.append(PIECE_LETTERS.charAt(type.ordinal()));
+            boolean rivals = false;
+            boolean sameColumn = false;
+            boolean sameRow = false;
+            for (int i = 0; i < scratch.size(); i++) {
+                int other = scratch.get(i);
+                int otherFrom = ChessMove.from(other);
+                if (otherFrom == from || ChessMove.to(other) != to
+                        || board.getPiece(otherFrom).getPieceType() != type) {
+                    continue;
+                }
+                rivals = true;
+                sameColumn |= ChessBoard.column(otherFrom) == ChessBoard.column(from);
+                sameRow |= ChessBoard.row(otherFrom) == ChessBoard.row(from);
+            }
+            if (rivals && (!sameColumn || sameRow)) {
+                out.append(file(from));
+            }
+            if (sameColumn) {
+                out.append((char) ('0' + ChessBoard.row(from)));
+            }
+            if (capture) {
+                out.append('x');
+            }
+            appendSquare(to, out);
+        }
+
+        game.doMove(move);
+        ChessGame.TeamColor defender = game.getTeamTurn();
+        if (game.isInCheck(defender)) {
+            scratch.clear();
+            game.generateLegalMoves(defender, scratch);
+            out.append(scratch.isEmpty() ? '#' : '+');
+        }
+        game.undoMove();
+    }
+
+    private static int castleDirection(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length != 3 && length != 5) {
+            return 0;
+        }
+        for (int i = start; i < end; i++) {
+            char expected = ((i - start) % 2 == 0) ? 'O' : '-';
+            char c = text.charAt(i);
+            if (c != expected && !(expected == 'O' && c == '0')) {
+                return 0;
+            }
+        }
+        return (length == 3) ? 1 : -1;
+    }
+
+    private static boolean isPromotionLetter(char c) {
+        return c == 'Q' || c == 'R' || c == 'B' || c == 'N';
+    }
+
+    private static ChessPiece.PieceType pieceType(char letter) {
+        return PIECE_TYPES[PIECE_LETTERS.indexOf(letter)];
+    }
+
+    private static int square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return ChessBoard.index(rank - '0', file - 'a' + 1);
+    }
+
+    private static char file(int square) {
+        return (char) ('a' + ChessBoard.column(square) - 1);
+    }
+
+    private static void appendSquare(int square, StringBuilder out) {
+        out.append(file(square)).append((char) ('0' + ChessBoard.row(square)));
+    }
+}
@@ -0,0 +1,444 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Finds a good move for the side to move with a negamax alpha-beta search, deepened one
+ * ply at a time until the limits run out.
+ * <p>
+ * Each iteration searches the previous iteration's best move first, which makes the
+ * alpha-beta cutoffs of the next one much sharper. Inside the tree, moves are tried in
+ * the order most likely to cause a cutoff: captures by most valuable victim and least
+ * valuable attacker, then promotions, then two "killer" quiet moves per ply that
+ * refuted a sibling, then the other quiet moves by how often they have cut off before,
+ * and last the captures that a static exchange evaluation says lose material.
+ * <p>
+ * When the depth runs out the search does not stop on a position in the middle of an
+ * exchange: a quiescence search plays on with captures and queen promotions only,
+ * skipping losing captures, until the position is quiet enough to evaluate. A side not
+ * in check may also "stand pat" on the static evaluation rather than capture.
+ * <p>
+ * Results are kept in a TranspositionTable, so a position reached again by another
+ * move order, in a later iteration or in a later search is cut off or at least searched
+ * best-move first. Searches on different threads can share one table.
+ * <p>
+ * The search plays moves on the game with doMove/undoMove and leaves it as it found it.
+ * An instance keeps its move buffers and ordering tables between searches; it is not
+ * thread-safe, except for stop().
+ */
+public class Search {
+
+    /**
+     * Score of being checkmated at the root; a mate found n plies in is MATE - n
+     */
+    public static final int MATE = 30000;
+    static final int MAX_PLY = 128;
+    private static final int INFINITY = MATE + 1;
+
+    private static final int CAPTURE_SCORE = 1 << 20;
+    private static final int PROMOTION_SCORE = 1 << 19;
+    private static final int KILLER_SCORE = 1 << 18;
+
+    private final MoveList[] moveBuffers = new MoveList[MAX_PLY + 1];
+    private final int[][] orderScores = new int[MAX_PLY + 1][];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] historyScores = new int[64][64];
+    private final int[] exchangeGains = new int[32];
+    private final TranspositionTable table;
+    private final int helperIndex;
+
+    private ChessGame game;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean stopped;
+    private boolean canStop;
+    private volatile boolean stopRequested;
+
+    /**
+     * Creates a search with its own 16 MB transposition table
+     */
+    public Search() {
+        this(new TranspositionTable(16));
+    }
+
+    /**
+     * Creates a search that reads and writes a table it may share with other searches
+     */
+    public Search(TranspositionTable table) {
+        this(table, 0);
+    }
+
+    /**
+     * Creates one thread's search for ParallelSearch. Helper searches (index 1 and up)
+     * start every other one a ply deeper and try the root moves after the first in a
+     * rotated order, so they explore different parts of the tree than the main search
+     * (index 0) and each other, and leave different results in the shared table.
+     */
+    Search(TranspositionTable table, int helperIndex) {
+        this.table = table;
+        this.helperIndex = helperIndex;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            moveBuffers[ply] = new MoveList();
+            orderScores[ply] = new int[256];
+        }
+    }
+
+    /**
+     * Searches the game's current position
+     *
+     * @param game the game to search; its position is restored before returning
+     * @param limits when to stop
+     * @return the best move found and its score
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        table.newSearch();
+        return searchShared(game, limits);
+    }
+
+    /**
+     * Searches like search, but in the table's current generation, for a search that
+     * runs on several threads and starts the generation once for all of them
+     */
+    SearchResult searchShared(ChessGame game, SearchLimits limits) {
+        long start = System.nanoTime();
+        this.game = game;
+        nodes = 0;
+        maxNodes = limits.nodes();
+        deadline = (limits.millis() >= Long.MAX_VALUE / 1_000_000) ? Long.MAX_VALUE
+                : start + limits.millis() * 1_000_000;
+        stopped = false;
+        canStop = false;
+        for (int[] pair : killers) {
+            pair[0] = 0;
+            pair[1] = 0;
+        }
+        for (int[] row : historyScores) {
+            Arrays.fill(row, 0);
+        }
+
+        MoveList rootMoves = moveBuffers[0];
+        rootMoves.clear();
+        game.generateLegalMoves(game.getTeamTurn(), rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = game.isInCheck(game.getTeamTurn()) ? -MATE : 0;
+            stopRequested = false;
+            return new SearchResult(null, score, 0, 0, elapsedMillis(start));
+        }
+        scoreMoves(rootMoves, 0, TranspositionTable.move(table.probe(game.getPositionKey())));
+        sortMoves(rootMoves, 0);
+        int rotation = (rootMoves.size() > 2) ? helperIndex % (rootMoves.size() - 1) : 0;
+        for (int turn = 0; turn < rotation; turn++) {
+            for (int i = 1; i < rootMoves.size() - 1; i++) {
+                rootMoves.swap(i, i + 1);
+            }
+        }
+
+        int bestMove = rootMoves.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+        int firstDepth = Math.min(1 + (helperIndex & 1), limits.depth());
+        for (int depth = firstDepth; depth <= limits.depth(); depth++) {
+            int alpha = -INFINITY;
+            int iterationBest = 0;
+            for (int i = 0; i < rootMoves.size(); i++) {
+                int move = rootMoves.get(i);
+                game.doMove(move);
+                int score = -negamax(depth - 1, 1, -INFINITY, -alpha);
+                game.undoMove();
+                if (stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = i;
+                }
+            }
+            if (stopped) {
+                break;
+            }
+            for (int i = iterationBest; i > 0; i--) {
+                rootMoves.swap(i, i - 1);
+            }
+            bestMove = rootMoves.get(0);
+            bestScore = alpha;
+            completedDepth = depth;
+            table.store(game.getPositionKey(), bestMove, bestScore, depth, TranspositionTable.EXACT);
+            canStop = true;
+            if (Math.abs(bestScore) > MATE - MAX_PLY) {
+                break;
+            }
+        }
+        this.game = null;
+        stopRequested = false;
+        return new SearchResult(ChessMove.decode(bestMove), bestScore, completedDepth, nodes, elapsedMillis(start));
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible and return its best move so
+     * far. A search always finishes depth 1 first. If no search is running the next one
+     * stops instead, so a stop sent just before a search starts is not lost. Safe to
+     * call from another thread.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Drops a stop request no search has taken, for a caller that stopped a search
+     * which may already have finished
+     */
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        if (depth == 0) {
+            return quiescence(ply, alpha, beta);
+        }
+        if (countNode()) {
+            return 0;
+        }
+        if (game.isFiftyMoveRule() || game.isRepetition()) {
+            return 0;
+        }
+        if (ply == MAX_PLY) {
+            return Evaluation.evaluate(game);
+        }
+
+        long key = game.getPositionKey();
+        long entry = table.probe(key);
+        if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        MoveList moves = moveBuffers[ply];
+        moves.clear();
+        game.generateLegalMoves(game.getTeamTurn(), moves);
+        if (moves.isEmpty()) {
+            return game.isInCheck(game.getTeamTurn()) ? -MATE + ply : 0;
+        }
+        scoreMoves(moves, ply, TranspositionTable.move(entry));
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            pickMove(moves, ply, i);
+            int move = moves.get(i);
+            boolean quiet = !isCapture(move) && ChessMove.promotion(move) == null;
+            game.doMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (quiet) {
+                            storeKiller(move, ply);
+                            historyScores[ChessMove.from(move)][ChessMove.to(move)] += depth * depth;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = (best >= beta) ? TranspositionTable.LOWER
+                : (best > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Searches captures and queen promotions until the position is quiet. When in check
+     * every evasion is searched instead, so a mate at the end of a line is still seen.
+     */
+    private int quiescence(int ply, int alpha, int beta) {
+        if (countNode()) {
+            return 0;
+        }
+        if (game.isFiftyMoveRule() || game.isRepetition()) {
+            return 0;
+        }
+        if (ply == MAX_PLY) {
+            return Evaluation.evaluate(game);
+        }
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = Evaluation.evaluate(game);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        MoveList moves = moveBuffers[ply];
+        moves.clear();
+        game.generateLegalMoves(game.getTeamTurn(), moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(moves, ply, 0);
+        int[] scores = orderScores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            pickMove(moves, ply, i);
+            int move = moves.get(i);
+            if (!inCheck) {
+                if (scores[i] < PROMOTION_SCORE) {
+                    // only quiet moves and losing captures are left
+                    break;
+                }
+                if (scores[i] < CAPTURE_SCORE && ChessMove.promotion(move) != ChessPiece.PieceType.QUEEN) {
+                    continue;
+                }
+            }
+            game.doMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts a node and checks the limits
+     *
+     * @return true if the search has to stop
+     */
+    private boolean countNode() {
+        nodes++;
+        if (canStop && (nodes >= maxNodes
+                || ((nodes & 1023) == 0 && (stopRequested || System.nanoTime() >= deadline)))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Converts a mate score from "plies from the root" to "plies from this position" for
+     * storing, so the entry stays right when the position is reached at another ply
+     */
+    private static int toTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) {
+            return score + ply;
+        } else if (score < -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) {
+            return score - ply;
+        } else if (score < -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Gives every move an ordering score; the move equal to first (the table's best
+     * move), if any, goes ahead of everything. Captures that lose material by static
+     * exchange get their (negative) exchange value, which puts them after the quiet moves.
+     */
+    private void scoreMoves(MoveList moves, int ply, int first) {
+        int[] scores = orderScores[ply];
+        ChessBoard board = game.getBoard();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == first) {
+                score = Integer.MAX_VALUE;
+            } else if (isCapture(move)) {
+                int exchange = Evaluation.staticExchange(board, move, exchangeGains);
+                if (exchange < 0) {
+                    score = exchange;
+                } else {
+                    ChessPiece victim = board.getPiece(ChessMove.to(move));
+                    int victimValue = (victim == null) ? Evaluation.PIECE_VALUES[ChessPiece.PieceType.PAWN.ordinal()]
+                            : Evaluation.PIECE_VALUES[victim.getPieceType().ordinal()];
+                    int attacker = board.getPiece(ChessMove.from(move)).getPieceType().ordinal();
+                    score = CAPTURE_SCORE + victimValue * 8 - Evaluation.PIECE_VALUES[attacker] / 100;
+                }
+            } else if (ChessMove.promotion(move) != null) {
+                score = PROMOTION_SCORE + Evaluation.PIECE_VALUES[ChessMove.promotion(move).ordinal()];
+            } else if (move == killers[ply][0] || move == killers[ply][1]) {
+                score = KILLER_SCORE + (move == killers[ply][0] ? 1 : 0);
+            } else {
+                score = Math.min(historyScores[ChessMove.from(move)][ChessMove.to(move)], KILLER_SCORE - 1);
+            }
+            if (i >= scores.length) {
+                orderScores[ply] = scores = Arrays.copyOf(scores, moves.size());
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Moves the best-scoring move among [index, size) to index. Selecting lazily is
+     * cheaper than a full sort because most nodes cut off after a move or two.
+     */
+    private void pickMove(MoveList moves, int ply, int index) {
+        int[] scores = orderScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+    }
+
+    private void sortMoves(MoveList moves, int ply) {
+        for (int i = 0; i < moves.size(); i++) {
+            pickMove(moves, ply, i);
+        }
+    }
+
+    private boolean isCapture(int move) {
+        ChessBoard board = game.getBoard();
+        int from = ChessMove.from(move);
+        int to = ChessMove.to(move);
+        return board.getPiece(to) != null || (board.getPiece(from).getPieceType() == ChessPiece.PieceType.PAWN
+                && ChessBoard.column(from) != ChessBoard.column(to));
+    }
+
+    private void storeKiller(int move, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
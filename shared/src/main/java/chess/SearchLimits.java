@@ -0,0 +1,35 @@
+package chess;
+
+/**
+ * When a search should stop: after completing a depth, after visiting a number of
+ * nodes, or after an amount of time, whichever comes first. The search always finishes
+ * depth 1, so it has a move to return however tight the limits are.
+ *
+ * @param depth deepest iteration to search, in plies
+ * @param nodes node budget
+ * @param millis time budget in milliseconds
+ */
+public record SearchLimits(int depth, long nodes, long millis) {
+
+    /**
+     * Deepest iteration the search supports
+     */
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (depth < 1 || nodes < 1 || millis < 1) {
+            throw new IllegalArgumentException("search limits must be positive");
+        }
+        depth = Math.min(depth, MAX_DEPTH);
+    }
+
+    public static SearchLimits ofDepth(int depth) {
+        return new SearchLimits(depth, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+    public static SearchLimits ofNodes(long nodes) {
+        return new SearchLimits(MAX_DEPTH, nodes, Long.MAX_VALUE);
+    }
+    public static SearchLimits ofMillis(long millis) {
+        return new SearchLimits(MAX_DEPTH, Long.MAX_VALUE, millis);
+    }
+}
@@ -0,0 +1,33 @@
+package chess;
+
+/**
+ * The outcome of a search
+ *
+ * @param bestMove the move to play, or null if the side to move has no legal moves
+ * @param score the position's value for the side to move, in centipawns; mates are
+ * scored Search.MATE minus the number of plies to mate
+ * @param depth the deepest iteration that completed
+ * @param nodes positions visited
+ * @param millis time spent, in milliseconds
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long millis) {
+
+    /**
+     * @return True if the score is a forced mate, for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) > Search.MATE - Search.MAX_PLY;
+    }
+
+    /**
+     * @return the number of moves (not plies) to a forced mate, negative when the side
+     * to move is the one being mated, or 0 if the score is not a mate
+     */
+    public int mateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        return (score > 0) ? (plies + 1) / 2 : -(plies / 2);
+    }
+}
@@ -0,0 +1,164 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size table of search results keyed by position, shared by any number of
+ * search threads without locks.
+ * <p>
+ * Each entry is two longs in one flat array: the position key XORed with the data, then
+ * the data itself. A reader XORs them back and only accepts the entry if the result is
+ * the key it asked for, so an entry torn by two threads writing at once reads as a miss
+ * rather than as another position's result. The data packs, from the low bits up:
+ * <pre>
+ *     bits  0-15  best move (ChessMove.encode), 0 for none
+ *     bits 16-31  score, signed
+ *     bits 32-39  depth searched
+ *     bits 40-41  bound: EXACT, LOWER or UPPER
+ *     bits 42-49  search generation, so results left from old searches are replaced first
+ * </pre>
+ * The table size is fixed at construction, so memory stays bounded however long the
+ * searches run.
+ */
+public class TranspositionTable {
+
+    /**
+     * The score is the position's exact value
+     */
+    public static final int EXACT = 1;
+    /**
+     * The search failed high: the value is at least the score
+     */
+    public static final int LOWER = 2;
+    /**
+     * The search failed low: the value is at most the score
+     */
+    public static final int UPPER = 3;
+
+    private final long[] table;
+    private final int mask;
+    private volatile int generation;
+
+    /**
+     * Most entries a table can hold: two longs each, and a Java array holds under 2^31
+     */
+    static final int MAX_ENTRIES = 1 << 29;
+
+    /**
+     * @param megabytes memory to use; rounded down to a power-of-two number of entries,
+     * at most MAX_ENTRIES (8 GB)
+     */
+    public TranspositionTable(int megabytes) {
+        int entries = entryCount(megabytes);
+        table = new long[entries * 2];
+        mask = entries - 1;
+    }
+
+    /**
+     * @return the number of entries a table of the given size holds
+     */
+    static int entryCount(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("table needs at least 1 MB, was " + megabytes);
+        }
+        return (int) Math.min(Long.highestOneBit(megabytes * (1L << 20) / 16), MAX_ENTRIES);
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Looks a position up
+     *
+     * @return the packed data stored for the key, or 0 if there is none
+     */
+    public long probe(long key) {
+        int index = index(key);
+        long check = table[index];
+        long data = table[index + 1];
+        return ((check ^ data) == key) ? data : 0;
+    }
+
+    /**
+     * Records a search result. An entry for another position is replaced unless it was
+     * searched deeper during the current search generation.
+     *
+     * @param move the best move found, or 0 to keep the move already stored for the key
+     * @param score the score, which must fit in 16 signed bits
+     * @param bound EXACT, LOWER or UPPER
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = index(key);
+        long oldData = table[index + 1];
+        boolean sameKey = (table[index] ^ oldData) == key;
+        int current = generation & 0xFF;
+        if (!sameKey && oldData != 0 && generation(oldData) == current && depth(oldData) > depth) {
+            return;
+        }
+        if (move == 0 && sameKey) {
+            move = move(oldData);
+        }
+        long data = (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) Math.min(depth, 255) << 32)
+                | ((long) bound << 40)
+                | ((long) current << 42);
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    /**
+     * Starts a new search generation, so entries from earlier searches give way to new
+     * ones regardless of depth
+     */
+    public void newSearch() {
+        generation++;
+    }
+
+    /**
+     * Empties the table
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /**
+     * @return the best move packed in data returned by probe, or 0 for none
+     */
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    /**
+     * @return the score packed in data returned by probe
+     */
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    /**
+     * @return the depth packed in data returned by probe
+     */
+    public static int depth(long data) {
+        return (int) ((data >>> 32) & 0xFF);
+    }
+
+    /**
+     * @return EXACT, LOWER or UPPER, from data returned by probe
+     */
+    public static int bound(long data) {
+        return (int) ((data >>> 40) & 0x3);
+    }
+
+    static int generation(long data) {
+        return (int) ((data >>> 42) & 0xFF);
+    }
+
+    private int index(long key) {
+        return ((int) key & mask) << 1;
+    }
+}
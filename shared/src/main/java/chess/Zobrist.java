@@ -0,0 +1,55 @@
+package chess;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of the key for
+ * every (piece, square) pair on the board, the side-to-move key when black is to move,
+ * and the keys for the castling rights and en passant file, so a move updates it with a
+ * few XORs instead of a rescan. The entries for "no rights" and "no en passant file" are
+ * zero, so positions without them hash as the piece placement and side alone.
+ * <p>
+ * The keys come from a fixed-seed SplitMix64 sequence so that a position hashes to the
+ * same value in every JVM, and stored keys stay valid across runs as long as what goes
+ * into a key does not change. Files that store keys carry a format version to raise
+ * if it ever does; see OpeningBook.VERSION.
+ */
+final class Zobrist {
+    static final long[][] PIECE_SQUARE = new long[12][64];
+    static final long BLACK_TO_MOVE;
+    /**
+     * Indexed by the castling-rights bit set (ChessGame.WHITE_KINGSIDE etc.)
+     */
+    static final long[] CASTLING = new long[16];
+    /**
+     * Indexed by en passant column, 1-8, or 0 for none
+     */
+    static final long[] EN_PASSANT = new long[9];
+
+    static {
+        long state = 0x2D358DCCAA6C78A5L;
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                state += 0x9E3779B97F4A7C15L;
+                PIECE_SQUARE[piece][square] = mix(state);
+            }
+        }
+        state += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(state);
+        for (int rights = 1; rights < 16; rights++) {
+            state += 0x9E3779B97F4A7C15L;
+            CASTLING[rights] = mix(state);
+        }
+        for (int column = 1; column <= 8; column++) {
+            state += 0x9E3779B97F4A7C15L;
+            EN_PASSANT[column] = mix(state);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
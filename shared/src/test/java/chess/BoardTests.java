@@ -0,0 +1,62 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BoardTests {
+
+    @Test
+    @DisplayName("Off-Board Positions Are Rejected")
+    public void offBoardPositions() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessPiece rook = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> board.getPiece(new ChessPosition(2, 0)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> board.getPiece(new ChessPosition(0, 1)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> board.addPiece(new ChessPosition(9, 1), rook));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> board.addPiece(new ChessPosition(1, 9), rook));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ChessMove(new ChessPosition(1, 8), new ChessPosition(1, 9), null).encode());
+
+        ChessGame game = new ChessGame();
+        Assertions.assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(new ChessMove(new ChessPosition(1, 8), new ChessPosition(1, 9), null)));
+    }
+
+    @Test
+    @DisplayName("JSON Keeps The 8x8 Layout")
+    public void jsonLayout() throws InvalidMoveException {
+        Gson gson = new Gson();
+        String empty = "null,null,null,null,null,null,null,null";
+        String legacy = "{\"squares\":["
+                + "[null,null,null,null,{\"pieceColor\":\"WHITE\",\"type\":\"KING\"},null,null,null],"
+                + ("[" + empty + "],").repeat(6)
+                + "[null,null,null,null,{\"pieceColor\":\"BLACK\",\"type\":\"KING\"},null,null,null]]}";
+        ChessBoard board = gson.fromJson(legacy, ChessBoard.class);
+        ChessBoard expected = new ChessBoard();
+        expected.addPiece(new ChessPosition(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        expected.addPiece(new ChessPosition(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        Assertions.assertEquals(expected, board);
+        Assertions.assertEquals(expected.getZobristKey(), board.getZobristKey());
+        Assertions.assertEquals(expected.getKingSquare(ChessGame.TeamColor.BLACK), board.getKingSquare(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(legacy, gson.toJson(board));
+
+        ChessGame game = new ChessGame();
+        game.makeMove(San.parse(game, "e4"));
+        game.makeMove(San.parse(game, "Nf6"));
+        String json = gson.toJson(game);
+        Assertions.assertFalse(json.contains("pieceSets"));
+        ChessGame loaded = gson.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(Fen.toFen(game), Fen.toFen(loaded));
+        Assertions.assertEquals(game.getPositionKey(), loaded.getPositionKey());
+
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{\"squares\":[[null]]}", ChessBoard.class));
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson(
+                "{\"squares\":[" + "null,".repeat(63) + "null]}", ChessBoard.class), "flat array");
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson(
+                legacy.replace("KING\"}", "EMPEROR\"}"), ChessBoard.class));
+    }
+}
@@ -0,0 +1,73 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static chess.TestUtilities.move;
+
+public class DrawRuleTests {
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertFalse(game.isThreefoldRepetition());
+            shuffleKnights(game);
+        }
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertTrue(game.isDraw());
+    }
+
+    @Test
+    @DisplayName("Threefold Repetition From A FEN Start")
+    public void threefoldRepetitionFromFen() throws InvalidMoveException {
+        // nothing is asked of the game until the start position has come back twice
+        ChessGame game = Fen.newGame("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        for (int i = 0; i < 2; i++) {
+            game.makeMove(move(8, 7, 6, 6));
+            game.makeMove(move(1, 7, 3, 6));
+            game.makeMove(move(6, 6, 8, 7));
+            game.makeMove(move(3, 6, 1, 7));
+        }
+        Assertions.assertTrue(game.isThreefoldRepetition(), "black to move with castling rights");
+
+        game = Fen.newGame("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1");
+        shuffleKnights(game);
+        shuffleKnights(game);
+        Assertions.assertTrue(game.isThreefoldRepetition(), "white to move without castling rights");
+    }
+
+    @Test
+    @DisplayName("Pawn Move Resets Repetition")
+    public void pawnMoveResetsRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        game.makeMove(move(2, 5, 4, 5));
+        game.makeMove(move(7, 5, 5, 5));
+        shuffleKnights(game);
+        Assertions.assertFalse(game.isThreefoldRepetition());
+        Assertions.assertEquals(4, game.getHalfmoveClock());
+    }
+
+    @Test
+    @DisplayName("Fifty Move Rule")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 25; i++) {
+            Assertions.assertFalse(game.isFiftyMoveRule());
+            shuffleKnights(game);
+        }
+        Assertions.assertEquals(100, game.getHalfmoveClock());
+        Assertions.assertTrue(game.isFiftyMoveRule());
+        Assertions.assertTrue(game.isDraw());
+    }
+
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(move(1, 2, 3, 3));
+        game.makeMove(move(8, 2, 6, 3));
+        game.makeMove(move(3, 3, 1, 2));
+        game.makeMove(move(6, 3, 8, 2));
+    }
+}
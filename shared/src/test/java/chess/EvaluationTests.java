@@ -0,0 +1,76 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Balanced And Mirrored Positions")
+    public void balancedPositions() {
+        Assertions.assertEquals(0, Evaluation.evaluate(new ChessGame()));
+        ChessGame white = Fen.newGame("4k3/8/8/8/8/8/3Q4/4K3 w - - 0 1");
+        ChessGame black = Fen.newGame("4k3/3q4/8/8/8/8/8/4K3 b - - 0 1");
+        Assertions.assertTrue(Evaluation.evaluate(white) > 800);
+        Assertions.assertEquals(Evaluation.evaluate(white), Evaluation.evaluate(black));
+        Assertions.assertEquals(Evaluation.evaluate(white.getBoard()), -Evaluation.evaluate(black.getBoard()));
+    }
+
+    @Test
+    @DisplayName("Incremental Score Matches A Full Count")
+    public void incrementalMatchesFullCount() {
+        Random random = new Random(240);
+        MoveList moves = new MoveList();
+        for (int game = 0; game < 20; game++) {
+            ChessGame chess = Fen.newGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+            int played = 0;
+            for (int ply = 0; ply < 80; ply++) {
+                moves.clear();
+                chess.generateLegalMoves(chess.getTeamTurn(), moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                chess.doMove(moves.get(random.nextInt(moves.size())));
+                played++;
+                Assertions.assertEquals(fullCount(chess.getBoard()), chess.getBoard().getMaterialScore());
+            }
+            for (; played > 0; played--) {
+                chess.undoMove();
+                Assertions.assertEquals(fullCount(chess.getBoard()), chess.getBoard().getMaterialScore());
+            }
+            Assertions.assertEquals(chess.getBoard().getMaterialScore(), chess.getBoard().calcBoard().getMaterialScore());
+        }
+    }
+
+    @Test
+    @DisplayName("Static Exchange")
+    public void staticExchange() {
+        Assertions.assertEquals(-800, exchange("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1", "Qxd5"));
+        Assertions.assertEquals(100, exchange("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "Rxd5"), "x-ray through the front rook");
+        Assertions.assertEquals(100, exchange("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "exd6"), "en passant");
+        Assertions.assertEquals(-800, exchange("3qk3/8/8/8/8/8/3P4/4K3 b - - 0 1", "Qxd2+"));
+        Assertions.assertEquals(100, exchange("3rk3/3q4/8/8/8/8/3P4/4K3 b - - 0 1", "Qxd2+"), "king cannot recapture");
+        Assertions.assertEquals(320, exchange("4k3/8/8/3n4/4P3/8/8/4K3 w - - 0 1", "exd5"));
+    }
+
+    private static int exchange(String fen, String san) {
+        ChessGame game = Fen.newGame(fen);
+        return Evaluation.staticExchange(game.getBoard(), San.parse(game, san).encode(), new int[32]);
+    }
+
+    private static int fullCount(ChessBoard board) {
+        int score = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null) {
+                int value = Evaluation.PIECE_VALUES[piece.getPieceType().ordinal()]
+                        + Evaluation.PIECE_SQUARE[piece.getIndex()][square];
+                score += (piece.getTeamColor() == ChessGame.TeamColor.WHITE) ? value : -value;
+            }
+        }
+        return score;
+    }
+}
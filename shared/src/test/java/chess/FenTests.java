@@ -0,0 +1,98 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        ChessGame game = Fen.newGame(Fen.START);
+        Assertions.assertEquals(new ChessGame().getBoard(), game.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+
+        StringBuilder placement = new StringBuilder();
+        Fen.appendPlacement(game.getBoard(), placement);
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", placement.toString());
+        Assertions.assertEquals(Fen.START, Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Round Trip")
+    public void roundTrip() {
+        String fen = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 b - - 7 10";
+        Assertions.assertEquals(fen, Fen.toFen(Fen.newGame(fen)));
+    }
+
+    @Test
+    @DisplayName("Castling And En Passant Fields")
+    public void castlingAndEnPassant() {
+        String fen = "r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 2";
+        ChessGame game = Fen.newGame(fen);
+        Assertions.assertEquals(fen, Fen.toFen(game));
+        Assertions.assertTrue(game.validMoves(new ChessPosition(5, 5))
+                .contains(new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 4), null)));
+        Assertions.assertFalse(game.validMoves(new ChessPosition(1, 5))
+                .contains(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 3), null)));
+
+        // rights without their rook, and an en passant square no pawn can use, are dropped
+        Assertions.assertEquals("4k3/8/8/3p4/8/8/8/4K2R w K - 0 1",
+                Fen.toFen(Fen.newGame("4k3/8/8/3p4/8/8/8/4K2R w KQkq d6 0 1")));
+    }
+
+    @Test
+    @DisplayName("Clocks Follow Moves")
+    public void clocksFollowMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 2 2", Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Reuse Parser")
+    public void reuseParser() {
+        Fen parser = new Fen();
+        ChessGame game = new ChessGame();
+        parser.parse("8/8/8/4k3/8/8/8/4K3 b - - 12 40", game);
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(12, game.getHalfmoveClock());
+        Assertions.assertEquals(40, game.getFullmoveNumber());
+
+        parser.parse("8/8/8/8/8/8/8/K6k w - -", game);
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(1, game.getFullmoveNumber());
+        Assertions.assertNull(game.getBoard().getPiece(new ChessPosition(5, 5)));
+
+        ChessBoard board = new ChessBoard();
+        parser.parse("8/8/8/8/8/8/8/K6k", board);
+        Assertions.assertEquals(game.getBoard(), board);
+    }
+
+    @Test
+    @DisplayName("Reject Malformed Records")
+    public void rejectMalformed() {
+        Fen parser = new Fen();
+        ChessGame game = new ChessGame();
+        ChessBoard before = game.getBoard().calcBoard();
+        String[] bad = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w - - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w - - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x - - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KK - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - e3 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 0",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1 extra",
+        };
+        for (String fen : bad) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> parser.parse(fen, game), fen);
+        }
+        Assertions.assertEquals(before, game.getBoard());
+    }
+}
@@ -0,0 +1,88 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LegalMoveCacheTests {
+
+    @Test
+    @DisplayName("Board Edits Through getBoard")
+    public void boardEdits() {
+        ChessGame game = new ChessGame();
+        ChessPosition e2 = new ChessPosition(2, 5);
+        Assertions.assertEquals(2, game.validMoves(e2).size());
+        game.getBoard().addPiece(new ChessPosition(3, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(0, game.validMoves(e2).size());
+        game.getBoard().addPiece(new ChessPosition(3, 5), null);
+        Assertions.assertEquals(2, game.validMoves(e2).size());
+
+        ChessGame pinned = Fen.newGame("4r2k/8/8/8/8/8/4B3/4K3 w - - 0 1");
+        ChessPosition bishop = new ChessPosition(2, 5);
+        Assertions.assertEquals(0, pinned.validMoves(bishop).size());
+        pinned.getBoard().addPiece(new ChessPosition(8, 5), null);
+        Assertions.assertEquals(9, pinned.validMoves(bishop).size());
+    }
+
+    @Test
+    @DisplayName("Castling Follows Board Edits")
+    public void castlingAfterEdits() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessPosition e1 = new ChessPosition(1, 5);
+        ChessMove castle = new ChessMove(e1, new ChessPosition(1, 7), null);
+        game.getBoard().addPiece(new ChessPosition(1, 6), null);
+        game.getBoard().addPiece(new ChessPosition(1, 7), null);
+        Assertions.assertTrue(game.validMoves(e1).contains(castle));
+
+        game.getBoard().addPiece(new ChessPosition(1, 8), null);
+        Assertions.assertFalse(game.validMoves(e1).contains(castle));
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(castle));
+
+        ChessGame moved = new ChessGame();
+        ChessPiece king = moved.getBoard().getPiece(e1);
+        moved.getBoard().addPiece(e1, null);
+        moved.getBoard().addPiece(new ChessPosition(1, 4), null);
+        moved.getBoard().addPiece(new ChessPosition(1, 3), null);
+        moved.getBoard().addPiece(new ChessPosition(1, 2), null);
+        moved.getBoard().addPiece(new ChessPosition(3, 4), king);
+        moved.getBoard().addPiece(new ChessPosition(2, 4), null);
+        Assertions.assertTrue(moved.validMoves(new ChessPosition(3, 4)).stream()
+                .noneMatch(move -> Math.abs(move.getEndPosition().getColumn() - 4) == 2));
+    }
+
+    @Test
+    @DisplayName("Check And Mate After Board Edits")
+    public void checkAfterEdits() {
+        ChessGame game = Fen.newGame("6k1/5ppp/8/8/8/8/8/K7 b - - 0 1");
+        Assertions.assertFalse(game.isInCheck(ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(game.isInStalemate(ChessGame.TeamColor.BLACK));
+        game.getBoard().addPiece(new ChessPosition(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+        game.getBoard().addPiece(new ChessPosition(8, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+        game.getBoard().addPiece(new ChessPosition(8, 4), null);
+        Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("setBoard And setTeamTurn")
+    public void setBoardAndTurn() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(2, game.validMoves(new ChessPosition(2, 5)).size());
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(2, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        game.setBoard(board);
+        Assertions.assertEquals(14, game.validMoves(new ChessPosition(2, 5)).size());
+
+        ChessMove rookMove = new ChessMove(new ChessPosition(2, 5), new ChessPosition(8, 5), null);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(rookMove));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        game.makeMove(rookMove);
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(2, game.validMoves(new ChessPosition(8, 8)).size());
+    }
+}
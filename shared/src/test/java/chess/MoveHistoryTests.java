@@ -0,0 +1,98 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static chess.TestUtilities.move;
+
+public class MoveHistoryTests {
+
+    @Test
+    @DisplayName("Undo And Redo")
+    public void undoAndRedo() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertFalse(game.undo());
+        long start = game.getPositionKey();
+        String[] line = {"e4", "d5", "e5", "f5", "exf6", "Nc6", "Nf3", "Bg4", "Bc4", "e6", "O-O"};
+        for (String san : line) {
+            game.makeMove(San.parse(game, san));
+        }
+        String end = Fen.toFen(game);
+        Assertions.assertEquals(line.length, game.getMoveHistory().size());
+
+        while (game.undo()) {
+        }
+        Assertions.assertEquals(0, game.getHistoryIndex());
+        Assertions.assertEquals(start, game.getPositionKey());
+        Assertions.assertEquals(Fen.START, Fen.toFen(game));
+
+        while (game.redo()) {
+        }
+        Assertions.assertEquals(end, Fen.toFen(game));
+        Assertions.assertFalse(game.redo());
+    }
+
+    @Test
+    @DisplayName("New Move Replaces Redo")
+    public void newMoveReplacesRedo() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(San.parse(game, "e4"));
+        game.makeMove(San.parse(game, "e5"));
+        game.undo();
+        game.makeMove(San.parse(game, "c5"));
+        Assertions.assertFalse(game.redo());
+        Assertions.assertEquals(List.of(San.parse(new ChessGame(), "e4"), move(7, 3, 5, 3)), game.getMoveHistory());
+    }
+
+    @Test
+    @DisplayName("Seek Through Long Game")
+    public void seekThroughLongGame() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 50; i++) {
+            game.makeMove(move(1, 2, 3, 3));
+            game.makeMove(move(8, 2, 6, 3));
+            game.makeMove(move(3, 3, 1, 2));
+            game.makeMove(move(6, 3, 8, 2));
+        }
+        Assertions.assertEquals(200, game.getHistoryIndex());
+        game.seek(2);
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertNotNull(game.getBoard().getPiece(new ChessPosition(3, 3)));
+        game.seek(0);
+        Assertions.assertFalse(game.isThreefoldRepetition());
+        Assertions.assertEquals(new ChessGame().getPositionKey(), game.getPositionKey());
+        game.seek(200);
+        Assertions.assertTrue(game.isFiftyMoveRule());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> game.seek(201));
+    }
+
+    @Test
+    @DisplayName("Write History As PGN")
+    public void writeHistory() throws InvalidMoveException, IOException {
+        ChessGame game = Fen.newGame("4k3/8/8/8/8/8/4P3/4K2R w K - 0 1");
+        game.makeMove(San.parse(game, "O-O"));
+        game.makeMove(San.parse(game, "Kd7"));
+        game.makeMove(San.parse(game, "e4"));
+        game.undo();
+
+        long key = game.getPositionKey();
+        ChessGame start = game.getStartPosition();
+        Assertions.assertEquals("4k3/8/8/8/8/8/4P3/4K2R w K - 0 1", Fen.toFen(start));
+        Assertions.assertEquals(key, game.getPositionKey());
+
+        StringWriter out = new StringWriter();
+        new PgnWriter(out).write(game, "*");
+        Assertions.assertTrue(out.toString().contains("[FEN \"4k3/8/8/8/8/8/4P3/4K2R w K - 0 1\"]\n"));
+        Assertions.assertTrue(out.toString().endsWith("\n1. O-O Kd7 *\n\n"));
+        Assertions.assertEquals(2, game.getHistoryIndex());
+
+        ChessGame later = Fen.newGame("4k3/8/8/8/8/8/4P3/4K2R b K - 7 31");
+        later.makeMove(San.parse(later, "Kd8"));
+        Assertions.assertEquals("4k3/8/8/8/8/8/4P3/4K2R b K - 7 31", Fen.toFen(later.getStartPosition()));
+    }
+}
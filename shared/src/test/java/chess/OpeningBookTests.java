@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static chess.TestUtilities.move;
+
+public class OpeningBookTests {
+
+    private static final String GAMES = """
+            1. e4 e5 2. Nf3 Nc6 *
+            1. e4 c5 2. Nf3 d6 *
+            1. d4 d5 2. c4 e6 *
+            1. e4 e5 2. Bc4 Nf6 *
+            """;
+
+    @TempDir
+    Path dir;
+
+    private Path buildBook() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        try (PgnReader reader = new PgnReader(new StringReader(GAMES))) {
+            for (PgnGame game = reader.next(); game != null; game = reader.next()) {
+                builder.addGame(game, 2);
+            }
+        }
+        Path path = dir.resolve("test.book");
+        builder.write(path);
+        return path;
+    }
+
+    @Test
+    @DisplayName("Book Moves By Weight")
+    public void bookMovesByWeight() throws IOException, InvalidMoveException {
+        try (OpeningBook book = OpeningBook.open(buildBook())) {
+            Assertions.assertEquals(5, book.size());
+            ChessGame game = new ChessGame();
+            Assertions.assertEquals(List.of(move(2, 5, 4, 5), move(2, 4, 4, 4)), game.getBookMoves(book));
+            Assertions.assertEquals(3, book.lookup(game.getPositionKey()).get(0).weight());
+
+            game.makeMove(move(2, 5, 4, 5));
+            Assertions.assertEquals(List.of(move(7, 5, 5, 5), move(7, 3, 5, 3)), game.getBookMoves(book));
+
+            game.makeMove(move(7, 5, 5, 5));
+            Assertions.assertTrue(game.getBookMoves(book).isEmpty());
+            Assertions.assertFalse(book.contains(game.getPositionKey()));
+        }
+    }
+
+    @Test
+    @DisplayName("Reject Bad Files")
+    public void rejectBadFiles() throws IOException {
+        Path path = buildBook();
+        byte[] data = Files.readAllBytes(path);
+
+        Path truncated = dir.resolve("truncated.book");
+        Files.write(truncated, Arrays.copyOf(data, data.length - 1));
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(truncated));
+
+        Path garbage = dir.resolve("garbage.book");
+        Files.write(garbage, new byte[32]);
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(garbage));
+
+        Path otherVersion = dir.resolve("version99.book");
+        byte[] version99 = data.clone();
+        version99[7] = 99;
+        Files.write(otherVersion, version99);
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(otherVersion), "unknown version");
+    }
+}
@@ -0,0 +1,57 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ParallelSearchTests {
+
+    @Test
+    @DisplayName("Finds Mate With Helpers")
+    public void findsMate() {
+        ChessGame game = Fen.newGame("3r2k1/5ppp/8/8/8/8/4R3/4R1K1 w - - 0 1");
+        String before = Fen.toFen(game);
+        ParallelSearch search = new ParallelSearch(4);
+        Assertions.assertEquals(4, search.threads());
+        SearchResult result = search.search(game, SearchLimits.ofDepth(5));
+        Assertions.assertEquals(San.parse(game, "Re8+"), result.bestMove());
+        Assertions.assertEquals(2, result.mateIn());
+        Assertions.assertEquals(before, Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Single Thread Matches Search")
+    public void singleThread() {
+        ChessGame game = Fen.newGame("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        SearchResult expected = new Search().search(game, SearchLimits.ofDepth(4));
+        SearchResult actual = new ParallelSearch(1).search(game, SearchLimits.ofDepth(4));
+        Assertions.assertEquals(expected.bestMove(), actual.bestMove());
+        Assertions.assertEquals(expected.score(), actual.score());
+        Assertions.assertEquals(expected.nodes(), actual.nodes());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(0));
+    }
+
+    @Test
+    @DisplayName("One Table Generation Per Search")
+    public void oneGenerationPerSearch() {
+        TranspositionTable table = new TranspositionTable(16);
+        ParallelSearch search = new ParallelSearch(4, table);
+        ChessGame game = new ChessGame();
+        search.search(game, SearchLimits.ofDepth(4));
+        int first = TranspositionTable.generation(table.probe(game.getPositionKey()));
+        search.search(game, SearchLimits.ofDepth(4));
+        int second = TranspositionTable.generation(table.probe(game.getPositionKey()));
+        Assertions.assertEquals(first + 1, second);
+    }
+
+    @Test
+    @DisplayName("Stops Helpers With The Main Search")
+    public void stopsHelpers() {
+        ParallelSearch search = new ParallelSearch(3);
+        SearchResult result = search.search(new ChessGame(), SearchLimits.ofNodes(20_000));
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(result.nodes() >= 20_000);
+        Assertions.assertEquals(0, Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("search-helper-")).count());
+    }
+}
@@ -0,0 +1,72 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Start Position Node Counts")
+    public void startPosition() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(20, Perft.perft(game, 1));
+        Assertions.assertEquals(400, Perft.perft(game, 2));
+        Assertions.assertEquals(8902, Perft.perft(game, 3));
+        Assertions.assertEquals(197281, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Castling, En Passant And Promotion Node Counts")
+    public void specialMoves() {
+        Assertions.assertEquals(97862, Perft.perft(Fen.newGame(
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"), 3));
+        Assertions.assertEquals(43238, Perft.perft(Fen.newGame(
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"), 4));
+        Assertions.assertEquals(9467, Perft.perft(Fen.newGame(
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"), 3));
+        Assertions.assertEquals(62379, Perft.perft(Fen.newGame(
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"), 3));
+    }
+
+    @Test
+    @DisplayName("Perft Restores Position")
+    public void restoresPosition() {
+        ChessGame game = Fen.newGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        ChessBoard before = game.getBoard().calcBoard();
+        long key = game.getPositionKey();
+        Perft.perft(game, 3);
+        Assertions.assertEquals(before, game.getBoard());
+        Assertions.assertEquals(key, game.getPositionKey());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Perft")
+    public void divideSumsToPerft() {
+        ChessGame game = new ChessGame();
+        Map<ChessMove, Long> divide = Perft.divide(game, 3);
+        Assertions.assertEquals(20, divide.size());
+        Assertions.assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(1, Perft.perft(game, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Perft.divide(game, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Perft.perft(game, -1));
+    }
+
+    @Test
+    @DisplayName("Parallel Divide Matches Sequential")
+    public void parallelDivide() {
+        ChessGame game = new ChessGame();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Assertions.assertEquals(Perft.divide(game, 5), Perft.divideParallel(game, 5, pool));
+            Assertions.assertEquals(197281, Perft.perftParallel(game, 4, pool));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Perft.divideParallel(game, 0, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
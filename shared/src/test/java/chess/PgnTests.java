@@ -0,0 +1,133 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+public class PgnTests {
+
+    private static final String SCHOLARS_MATE = """
+            [Event "Casual Game"]
+            [Site "?"]
+            [Date "????.??.??"]
+            [Round "?"]
+            [White "White"]
+            [Black "Black"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0
+
+            """;
+
+    @Test
+    @DisplayName("Read Games")
+    public void readGames() throws IOException, InvalidMoveException {
+        String archive = """
+                % exported by a tool that writes escape lines
+                [Event "Casual Game"]
+                [White "White"]
+                [Black "Black"]
+                [Result "1-0"]
+
+                1. e4 {best by test} e5 2. Bc4 (2. Nf3 Nc6 (2... d6) 3. Bb5) Nc6 $1
+                3. Qh5 Nf6?? ; missing the threat
+                4. Qxf7# 1-0
+
+                [Event "Knights"]
+
+                1.Nf3 d5 2.d3 e5 3.Nbd2 Nc6 *
+                """;
+        try (PgnReader reader = new PgnReader(new StringReader(archive))) {
+            PgnGame first = reader.next();
+            Assertions.assertEquals("Casual Game", first.getTag("Event"));
+            Assertions.assertEquals("1-0", first.getResult());
+            Assertions.assertEquals(7, first.getMoves().size());
+            Assertions.assertEquals(new ChessMove(new ChessPosition(5, 8), new ChessPosition(7, 6), null),
+                    first.getMoves().get(6));
+            Assertions.assertTrue(first.replay().isInCheckmate(ChessGame.TeamColor.BLACK));
+
+            PgnGame second = reader.next();
+            Assertions.assertEquals("*", second.getResult());
+            Assertions.assertEquals(new ChessMove(new ChessPosition(1, 2), new ChessPosition(2, 4), null),
+                    second.getMoves().get(4));
+
+            Assertions.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Skip Bad Games")
+    public void skipBadGames() throws IOException {
+        String archive = """
+                [Event "Illegal"]
+
+                1. e4 e5 2. Ke3 Nc6 1-0
+
+                [Event "Ambiguous"]
+
+                1. Nf3 d5 2. d3 e5 3. Nd2 *
+
+                [Event "Good"]
+
+                1. d4 d5 1/2-1/2
+                """;
+        try (PgnReader reader = new PgnReader(new StringReader(archive))) {
+            Assertions.assertThrows(IllegalArgumentException.class, reader::next);
+            Assertions.assertThrows(IllegalArgumentException.class, reader::next);
+            PgnGame good = reader.next();
+            Assertions.assertEquals("Good", good.getTag("Event"));
+            Assertions.assertEquals("1/2-1/2", good.getResult());
+            Assertions.assertEquals(2, good.getMoves().size());
+            Assertions.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("Stray Delimiters In Movetext")
+    public void strayDelimiters() throws IOException {
+        for (String bad : new String[]{"1. e4 } e5 *", "1. e4 e5 ] *", "1. e4 \"x\" *"}) {
+            String archive = "[Event \"Bad\"]\n\n" + bad + "\n\n[Event \"Good\"]\n\n1. d4 d5 *\n";
+            try (PgnReader reader = new PgnReader(new StringReader(archive))) {
+                Assertions.assertThrows(IllegalArgumentException.class, reader::next, bad);
+                Assertions.assertEquals("Good", reader.next().getTag("Event"), bad);
+                Assertions.assertNull(reader.next());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Write Round Trip")
+    public void writeRoundTrip() throws IOException {
+        PgnGame game;
+        try (PgnReader reader = new PgnReader(new StringReader(SCHOLARS_MATE))) {
+            game = reader.next();
+        }
+        StringWriter out = new StringWriter();
+        new PgnWriter(out).write(game);
+        Assertions.assertEquals(SCHOLARS_MATE, out.toString());
+    }
+
+    @Test
+    @DisplayName("Write From Position")
+    public void writeFromPosition() throws IOException {
+        ChessGame start = Fen.newGame("7k/P7/8/8/8/8/8/K7 w - - 0 60");
+        List<ChessMove> moves = List.of(
+                new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN),
+                new ChessMove(new ChessPosition(8, 8), new ChessPosition(7, 7), null));
+        StringWriter out = new StringWriter();
+        new PgnWriter(out).write(new PgnGame(start, moves, "*"));
+        Assertions.assertTrue(out.toString().contains("[FEN \"7k/P7/8/8/8/8/8/K7 w - - 0 60\"]\n"));
+        Assertions.assertTrue(out.toString().endsWith("\n60. a8=Q+ Kg7 *\n\n"));
+
+        try (PgnReader reader = new PgnReader(new StringReader(out.toString()))) {
+            Assertions.assertEquals(moves, reader.next().getMoves());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne() {
+        ChessGame game = Fen.newGame("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4");
+        SearchResult result = new Search().search(game, SearchLimits.ofDepth(4));
+        Assertions.assertEquals(San.parse(game, "Qxf7#"), result.bestMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("Finds Mate In Two")
+    public void mateInTwo() {
+        ChessGame game = Fen.newGame("3r2k1/5ppp/8/8/8/8/4R3/4R1K1 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.ofDepth(5));
+        Assertions.assertEquals(San.parse(game, "Re8+"), result.bestMove());
+        Assertions.assertEquals(2, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("Wins Hanging Material")
+    public void winsHangingMaterial() {
+        ChessGame game = Fen.newGame("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        String before = Fen.toFen(game);
+        SearchResult result = new Search().search(game, SearchLimits.ofDepth(3));
+        Assertions.assertEquals(San.parse(game, "Rxd5"), result.bestMove());
+        Assertions.assertTrue(result.score() > 300);
+        Assertions.assertEquals(before, Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Sees The Recapture At The Horizon")
+    public void quiescence() {
+        ChessGame game = Fen.newGame("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.ofDepth(1));
+        Assertions.assertNotEquals(San.parse(game, "Qxd5"), result.bestMove());
+        Assertions.assertTrue(result.score() > 500);
+    }
+
+    @Test
+    @DisplayName("Respects Limits")
+    public void respectsLimits() {
+        ChessGame game = new ChessGame();
+        SearchResult byNodes = new Search().search(game, SearchLimits.ofNodes(5000));
+        Assertions.assertNotNull(byNodes.bestMove());
+        Assertions.assertTrue(byNodes.nodes() <= 5000 + 100);
+
+        SearchResult byTime = new Search().search(game, SearchLimits.ofMillis(50));
+        Assertions.assertNotNull(byTime.bestMove());
+        Assertions.assertTrue(byTime.depth() < SearchLimits.MAX_DEPTH);
+        Assertions.assertEquals(Fen.START, Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Stops On Request")
+    public void stopsOnRequest() throws InterruptedException {
+        Search search = new Search();
+        SearchResult[] result = new SearchResult[1];
+        SearchLimits unlimited = SearchLimits.ofDepth(SearchLimits.MAX_DEPTH);
+        Thread thread = new Thread(() -> result[0] = search.search(new ChessGame(), unlimited));
+        thread.start();
+        search.stop();
+        thread.join();
+        Assertions.assertNotNull(result[0].bestMove());
+        Assertions.assertTrue(result[0].depth() < SearchLimits.MAX_DEPTH);
+    }
+
+    @Test
+    @DisplayName("No Legal Moves")
+    public void noLegalMoves() {
+        SearchResult stalemate = new Search().search(Fen.newGame("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"),
+                SearchLimits.ofDepth(3));
+        Assertions.assertNull(stalemate.bestMove());
+        Assertions.assertEquals(0, stalemate.score());
+    }
+}
@@ -0,0 +1,62 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SnapshotTests {
+
+    @Test
+    @DisplayName("Board Round Trip")
+    public void boardRoundTrip() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        byte[] data = board.encode();
+        Assertions.assertEquals(32, data.length);
+        Assertions.assertEquals(board, ChessBoard.decode(data));
+        Assertions.assertEquals(new ChessBoard(), ChessBoard.decode(new byte[32]));
+    }
+
+    @Test
+    @DisplayName("Game Round Trip")
+    public void gameRoundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+
+        byte[] data = game.encode();
+        Assertions.assertEquals(ChessGame.SNAPSHOT_SIZE, data.length);
+        ChessGame decoded = ChessGame.decode(data);
+        Assertions.assertEquals(game.getBoard(), decoded.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+        Assertions.assertEquals(2, decoded.getHalfmoveClock());
+        Assertions.assertEquals(game.getPositionKey(), decoded.getPositionKey());
+        Assertions.assertEquals(1, decoded.getFullmoveNumber(), "fullmove number is not stored");
+    }
+
+    @Test
+    @DisplayName("Decoded Game Counts Repetitions From Its Start")
+    public void decodedRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        ChessGame decoded = ChessGame.decode(game.encode());
+        for (int i = 0; i < 2; i++) {
+            decoded.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+            decoded.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+            decoded.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+            decoded.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+        }
+        Assertions.assertTrue(decoded.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Reject Bad Data")
+    public void rejectBadData() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessBoard.decode(new byte[31]));
+        byte[] data = new byte[32];
+        data[5] = (byte) 0xD0;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessBoard.decode(data));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.decode(new byte[32]));
+    }
+}
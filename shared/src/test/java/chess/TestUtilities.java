@@ -0,0 +1,17 @@
+package chess;
+
+/**
+ * Helpers shared by the engine tests
+ */
+final class TestUtilities {
+
+    private TestUtilities() {
+    }
+
+    /**
+     * @return a non-promoting move between two (row, column) positions
+     */
+    static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+    }
+}
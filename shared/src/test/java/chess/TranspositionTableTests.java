@@ -0,0 +1,80 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Store And Probe")
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        Assertions.assertEquals(1 << 16, table.capacity());
+        long key = new ChessGame().getPositionKey();
+        int move = ChessMove.encode(12, 28, null);
+        table.store(key, move, -1234, 7, TranspositionTable.UPPER);
+
+        long data = table.probe(key);
+        Assertions.assertEquals(move, TranspositionTable.move(data));
+        Assertions.assertEquals(-1234, TranspositionTable.score(data));
+        Assertions.assertEquals(7, TranspositionTable.depth(data));
+        Assertions.assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(data));
+        Assertions.assertEquals(0, table.probe(key + table.capacity()), "same slot, different key");
+
+        table.store(key, 0, 50, 8, TranspositionTable.LOWER);
+        Assertions.assertEquals(move, TranspositionTable.move(table.probe(key)), "move kept when none given");
+
+        table.clear();
+        Assertions.assertEquals(0, table.probe(key));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+        Assertions.assertEquals(1 << 17, TranspositionTable.entryCount(3));
+        Assertions.assertEquals(TranspositionTable.MAX_ENTRIES, TranspositionTable.entryCount(8192));
+        Assertions.assertEquals(TranspositionTable.MAX_ENTRIES, TranspositionTable.entryCount(16384));
+        Assertions.assertEquals(TranspositionTable.MAX_ENTRIES, TranspositionTable.entryCount(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Concurrent Writers Never Return Another Key's Data")
+    public void concurrentWriters() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicInteger mismatches = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 500_000; i++) {
+                    // every key lands in one of 16 slots, so writers collide constantly
+                    long key = ((long) (i * 31 + seed) << 20) | ((i + seed) & 15);
+                    int score = (int) (key >>> 20) & 0x7FFF;
+                    table.store(key, 0, score, 1, TranspositionTable.EXACT);
+                    long data = table.probe(key);
+                    if (data != 0 && TranspositionTable.score(data) != score) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(0, mismatches.get());
+    }
+
+    @Test
+    @DisplayName("Shared Table Speeds Up A Repeated Search")
+    public void sharedTable() {
+        TranspositionTable table = new TranspositionTable(16);
+        ChessGame game = Fen.newGame("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        SearchResult first = new Search(table).search(game, SearchLimits.ofDepth(5));
+        SearchResult second = new Search(table).search(game, SearchLimits.ofDepth(5));
+        Assertions.assertEquals(first.bestMove(), second.bestMove());
+        Assertions.assertTrue(second.nodes() < first.nodes() / 2,
+                "second search used " + second.nodes() + " nodes, first " + first.nodes());
+    }
+}
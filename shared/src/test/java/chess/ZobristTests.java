@@ -0,0 +1,75 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Special Moves Update The Key")
+    public void specialMoves() {
+        String[][] cases = {
+                {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "O-O"},
+                {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "O-O-O"},
+                {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "Rb1"},
+                {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "a4"},
+                {"rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3", "exf6"},
+                {"n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1", "gxf1=N"},
+                {"n1n5/PPPk4/8/8/8/8/4Kppp/5N1N w - - 0 1", "bxa8=Q"},
+                {"n1n5/PPPk4/8/8/8/8/4Kppp/5N1N w - - 0 1", "b8=R"},
+        };
+        for (String[] test : cases) {
+            ChessGame game = Fen.newGame(test[0]);
+            long before = game.getPositionKey();
+            int move = San.parse(game, test[1]).encode();
+            game.doMove(move);
+            Assertions.assertEquals(freshKey(game), game.getPositionKey(), test[1]);
+            game.undoMove();
+            Assertions.assertEquals(before, game.getPositionKey(), test[1]);
+            Assertions.assertEquals(freshKey(game), game.getPositionKey(), test[1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Incremental Key Matches A Fresh One")
+    public void randomPlayouts() {
+        String[] starts = {
+                Fen.START,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        };
+        Random random = new Random(8);
+        MoveList moves = new MoveList();
+        for (String start : starts) {
+            for (int playout = 0; playout < 20; playout++) {
+                ChessGame game = Fen.newGame(start);
+                long startKey = game.getPositionKey();
+                int played = 0;
+                for (; played < 60; played++) {
+                    moves.clear();
+                    game.generateLegalMoves(game.getTeamTurn(), moves);
+                    if (moves.isEmpty()) {
+                        break;
+                    }
+                    game.doMove(moves.get(random.nextInt(moves.size())));
+                    Assertions.assertEquals(freshKey(game), game.getPositionKey(), Fen.toFen(game));
+                }
+                for (; played > 0; played--) {
+                    game.undoMove();
+                }
+                Assertions.assertEquals(startKey, game.getPositionKey());
+            }
+        }
+    }
+
+    /**
+     * @return the key of the same position built from scratch, piece by piece
+     */
+    private static long freshKey(ChessGame game) {
+        return Fen.newGame(Fen.toFen(game)).getPositionKey();
+    }
+}